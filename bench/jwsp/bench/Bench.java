@@ -0,0 +1,56 @@
+package jwsp.bench;
+
+/**
+ * Pengukur waktu sederhana untuk benchmark di paket ini (tanpa JMH): beberapa putaran pemanasan,
+ * lalu waktu terbaik dari beberapa putaran terukur.
+ */
+final class Bench {
+
+    static final int WARMUP_ROUNDS = 5;
+    // Pemanasan minimal selama ini agar JIT sempat mengompilasi ulang tugas yang singkat
+    static final long WARMUP_NANOS = 1_000_000_000L;
+    static final int MEASURED_ROUNDS = 7;
+
+    // Mencegah JIT membuang hasil yang tidak dipakai
+    static volatile long sink;
+
+    interface Task {
+        long run();
+    }
+
+    private Bench() {
+    }
+
+    /**
+     * @return waktu terbaik per putaran dalam nanodetik
+     */
+    static long best(Task task) {
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        for (int i = 0; i < WARMUP_ROUNDS || System.nanoTime() < warmupEnd; i++) {
+            sink += task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Cetak satu baris baseline vs baru
+     * @param ops jumlah operasi per putaran; jika 1, waktu ditulis dalam ms, selain itu ns/op
+     */
+    static void report(String name, String baselineLabel, long baselineNanos, String newLabel, long newNanos, long ops) {
+        System.out.printf("%-28s %-18s %s   %-18s %s   x%.2f%n", name,
+            baselineLabel, format(baselineNanos, ops), newLabel, format(newNanos, ops),
+            (double) baselineNanos / newNanos);
+    }
+
+    private static String format(long nanos, long ops) {
+        return ops == 1
+            ? String.format("%9.2f ms  ", nanos / 1e6)
+            : String.format("%9.1f ns/op", (double) nanos / ops);
+    }
+}
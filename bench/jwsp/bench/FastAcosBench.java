@@ -0,0 +1,89 @@
+package jwsp.bench;
+
+import jwsp.domain.prayer.CalculationMethod;
+import jwsp.domain.prayer.ObserverLocation;
+import jwsp.domain.prayer.PrayerTimeCalculator;
+import jwsp.domain.prayer.SolarEphemerisCache;
+import jwsp.domain.prayer.SolarMath;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Math.acos vs SolarMath.fastAcos, lalu PrayerTimeCalculator mode eksak vs fastTrig pada jalur
+ * (cache, epochDay, ObserverLocation). Selisih maksimum keduanya ikut dicetak.
+ *
+ * Usage: ./run.sh bench FastAcosBench
+ */
+public class FastAcosBench {
+
+    private static final int INPUTS = 1 << 16;
+    private static final int LOCATIONS = 1000;
+    private static final int DAYS_PER_ROUND = 1_000_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(5);
+        double[] x = new double[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            x[i] = -1 + 2 * random.nextDouble();
+        }
+
+        long acosNanos = Bench.best(() -> {
+            double s = 0;
+            for (double v : x) s += Math.acos(v);
+            return (long) s;
+        });
+        long fastNanos = Bench.best(() -> {
+            double s = 0;
+            for (double v : x) s += SolarMath.fastAcos(v);
+            return (long) s;
+        });
+
+        double maxError = 0;
+        for (int i = 0; i <= 2_000_000; i++) {
+            double v = -1 + i / 1e6;
+            maxError = Math.max(maxError, Math.abs(SolarMath.fastAcos(v) - Math.acos(v)));
+        }
+
+        ObserverLocation[] locations = new ObserverLocation[LOCATIONS];
+        for (int i = 0; i < LOCATIONS; i++) {
+            locations[i] = new ObserverLocation(-11 + 17 * random.nextDouble(), 95 + 46 * random.nextDouble(),
+                                                7 + random.nextInt(3));
+        }
+        SolarEphemerisCache ephemeris = SolarEphemerisCache.getShared();
+        long today = LocalDate.now().toEpochDay();
+        PrayerTimeCalculator exact = new PrayerTimeCalculator(CalculationMethod.KEMENAG);
+        PrayerTimeCalculator fast = new PrayerTimeCalculator(CalculationMethod.KEMENAG, true);
+
+        long exactNanos = Bench.best(() -> computeDays(exact, ephemeris, today, locations, new int[8]));
+        long fastCalcNanos = Bench.best(() -> computeDays(fast, ephemeris, today, locations, new int[8]));
+
+        int[] a = new int[8];
+        int[] b = new int[8];
+        int maxDiff = 0;
+        for (int i = 0; i < 200_000; i++) {
+            ObserverLocation location = locations[i % LOCATIONS];
+            long day = today - 180 + (i % 360);
+            exact.compute(ephemeris, day, location, a, 0);
+            fast.compute(ephemeris, day, location, b, 0);
+            for (int k = 0; k < a.length; k++) {
+                maxDiff = Math.max(maxDiff, Math.abs(a[k] - b[k]));
+            }
+        }
+
+        Bench.report("arccos", "Math.acos", acosNanos, "fastAcos", fastNanos, INPUTS);
+        Bench.report("city-day (Kemenag)", "exact", exactNanos, "fastTrig", fastCalcNanos, DAYS_PER_ROUND);
+        System.out.printf("fastAcos max error %.3e rad (bound %.1e), max schedule diff %d s (bound %.2f s + 1 s rounding)%n",
+            maxError, SolarMath.FAST_ACOS_MAX_ERROR_RAD, maxDiff, SolarMath.FAST_MAX_ERROR_SECONDS);
+    }
+
+    private static long computeDays(PrayerTimeCalculator calculator, SolarEphemerisCache ephemeris, long today,
+                                    ObserverLocation[] locations, int[] out) {
+        long sum = 0;
+        for (int i = 0; i < DAYS_PER_ROUND; i++) {
+            calculator.compute(ephemeris, today + (i % 365), locations[i % LOCATIONS], out, 0);
+            sum += out[PrayerTimeCalculator.FAJR];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,99 @@
+package jwsp.bench;
+
+import com.sun.net.httpserver.HttpServer;
+import jwsp.api.ApiService;
+import jwsp.api.provider.HedgedScheduleResolver;
+import jwsp.api.provider.MyQuranProvider;
+import jwsp.api.provider.ScheduleProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+
+/**
+ * Cek HedgedScheduleResolver terhadap dua server lokal berformat myquran: server utama yang
+ * dibuat lambat dan mirror yang cepat. Setelah histogram server utama terisi, setiap request
+ * harus dijawab mirror jauh sebelum server utama selesai.
+ *
+ * Usage: ./run.sh bench HedgeCheck
+ */
+public class HedgeCheck {
+
+    private static final String BODY = "{\"status\":true,\"data\":{\"jadwal\":{\"imsak\":\"04:11\",\"subuh\":\"04:21\","
+        + "\"terbit\":\"05:43\",\"dhuha\":\"06:11\",\"dzuhur\":\"12:00\",\"ashar\":\"15:26\","
+        + "\"maghrib\":\"18:12\",\"isya\":\"19:27\",\"date\":\"2024-01-01\"}}}";
+    private static final int WARMUP = 40;
+    private static final int ROUNDS = 5;
+    private static final long SLOW_MS = 2000;
+
+    private static volatile long primaryDelayMs = 30;
+
+    public static void main(String[] args) throws IOException {
+        HttpServer primary = server(true);
+        HttpServer mirror = server(false);
+        try {
+            ScheduleProvider slow = new MyQuranProvider(new ApiService(baseUrl(primary)));
+            ScheduleProvider fast = new MyQuranProvider(new ApiService(baseUrl(mirror)));
+            HedgedScheduleResolver resolver = new HedgedScheduleResolver(Arrays.asList(slow, fast));
+            LocalDate date = LocalDate.of(2024, 1, 1);
+
+            // Isi histogram server utama saat masih sehat (~30 ms)
+            for (int i = 0; i < WARMUP; i++) {
+                resolver.resolve("1301", date).join();
+            }
+            System.out.println("primary " + resolver.getHistogram(slow)
+                + ", hedge delay " + resolver.hedgeDelayMillis(0) + " ms");
+
+            primaryDelayMs = SLOW_MS;
+            boolean ok = true;
+            for (int i = 0; i < ROUNDS; i++) {
+                long start = System.nanoTime();
+                HedgedScheduleResolver.Result result = resolver.resolve("1301", date).join();
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                boolean won = result != null && result.provider == fast && millis < SLOW_MS / 2;
+                ok &= won;
+                System.out.printf("round %d: %4d ms, winner=%s %s%n", i + 1, millis,
+                    result != null ? result.provider.getName() : "-", won ? "OK" : "FAIL");
+            }
+            System.out.println(ok ? "PASS: hedge fired, fastest provider won" : "FAIL");
+            if (!ok) System.exit(1);
+        } finally {
+            primary.stop(0);
+            mirror.stop(0);
+        }
+        System.exit(0);
+    }
+
+    private static HttpServer server(boolean delayed) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            if (delayed) {
+                try {
+                    Thread.sleep(primaryDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "hedge-check-server");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+        return server;
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,85 @@
+package jwsp.bench;
+
+import jwsp.data.wilayah.Wilayah;
+import jwsp.data.wilayah.WilayahData;
+import jwsp.domain.prayer.BatchPrayerCalculator;
+import jwsp.domain.prayer.CalculationMethod;
+import jwsp.domain.prayer.HourAngleKernel;
+import jwsp.domain.prayer.PrayerTimeCalculator;
+import jwsp.domain.prayer.ScalarHourAngleKernel;
+import jwsp.domain.prayer.SolarEphemerisCache;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Satu tahun jadwal seluruh wilayah (satu thread): per kota dengan PrayerTimeCalculator,
+ * BatchPrayerCalculator dengan kernel skalar, dan dengan kernel dari HourAngleKernel.create()
+ * (Vector API jika --add-modules jdk.incubator.vector). Hasil ketiganya dicek identik.
+ *
+ * Usage: ./run.sh bench KernelBench
+ */
+public class KernelBench {
+
+    public static void main(String[] args) {
+        CalculationMethod method = CalculationMethod.KEMENAG;
+        WilayahData data = WilayahData.getInstance();
+        List<Wilayah> cities = data.getAllWilayah();
+        double[] lat = data.getLatitudeColumn();
+        double[] lng = data.getLongitudeColumn();
+        int n = cities.size();
+        int[] tz = new int[n];
+        for (int c = 0; c < n; c++) {
+            tz[c] = PrayerTimeCalculator.utcOffsetHours(cities.get(c).getZonaWaktu());
+        }
+
+        int year = LocalDate.now().getYear();
+        LocalDate start = LocalDate.of(year, 1, 1);
+        int days = start.lengthOfYear();
+        SolarEphemerisCache ephemeris = SolarEphemerisCache.forRange(start.toEpochDay(), days);
+        int first = ephemeris.indexOf(start.toEpochDay());
+
+        HourAngleKernel kernel = HourAngleKernel.create();
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(method);
+        BatchPrayerCalculator scalar = new BatchPrayerCalculator(method, lat, lng, tz, new ScalarHourAngleKernel());
+        BatchPrayerCalculator vector = new BatchPrayerCalculator(method, lat, lng, tz, kernel);
+
+        int stride = PrayerTimeCalculator.TIMES_PER_DAY;
+        int[] perCity = new int[n * days * stride];
+        int[] batchScalar = new int[perCity.length];
+        int[] batchVector = new int[perCity.length];
+
+        Bench.Task perCityTask = () -> {
+            for (int d = 0; d < days; d++) {
+                for (int c = 0; c < n; c++) {
+                    calculator.compute(ephemeris, start.toEpochDay() + d, lat[c], lng[c], tz[c],
+                                       perCity, (d * n + c) * stride);
+                }
+            }
+            return perCity[0];
+        };
+        Bench.Task scalarTask = () -> batchYear(scalar, ephemeris, first, days, n, batchScalar);
+        Bench.Task vectorTask = () -> batchYear(vector, ephemeris, first, days, n, batchVector);
+
+        long perCityNanos = Bench.best(perCityTask);
+        long scalarNanos = Bench.best(scalarTask);
+        long vectorNanos = Bench.best(vectorTask);
+
+        System.out.println("National year " + year + ": " + n + " cities x " + days + " days, "
+            + method.getName() + ", kernel " + kernel.getClass().getSimpleName());
+        Bench.report("batch kernel", "scalar", scalarNanos, "create()", vectorNanos, 1);
+        Bench.report("batch vs per-city", "per-city", perCityNanos, "create()", vectorNanos, 1);
+        System.out.println("identical output: "
+            + (Arrays.equals(perCity, batchScalar) && Arrays.equals(perCity, batchVector)));
+    }
+
+    private static long batchYear(BatchPrayerCalculator batch, SolarEphemerisCache ephemeris, int first,
+                                  int days, int n, int[] out) {
+        int stride = PrayerTimeCalculator.TIMES_PER_DAY;
+        for (int d = 0; d < days; d++) {
+            batch.computeDay(ephemeris, first + d, 0, n, out, d * n * stride, stride);
+        }
+        return out[0];
+    }
+}
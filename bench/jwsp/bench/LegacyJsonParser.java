@@ -0,0 +1,133 @@
+package jwsp.bench;
+
+import jwsp.domain.prayer.PrayerSchedule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Salinan parser berbasis indexOf yang dulu ada di ApiService, hanya sebagai baseline
+ * {@link TokenizerBench}. Jangan dipakai di kode aplikasi.
+ */
+final class LegacyJsonParser {
+
+    Map<LocalDate, String> splitMonthlyJson(String json) {
+        Map<LocalDate, String> days = new TreeMap<>();
+        if (json == null) return days;
+
+        int key = json.indexOf("\"jadwal\":");
+        if (key == -1) return days;
+        int arrayStart = json.indexOf("[", key);
+        if (arrayStart == -1) return days;
+        int arrayEnd = json.indexOf("]", arrayStart);
+        if (arrayEnd == -1) return days;
+
+        int pos = arrayStart;
+        while ((pos = json.indexOf("{", pos)) != -1 && pos < arrayEnd) {
+            int end = findClosingBrace(json, pos);
+            if (end == -1) break;
+            String day = json.substring(pos, end + 1);
+            String date = findJsonValue(day, "\"date\"");
+            try {
+                days.put(LocalDate.parse(date), "{\"status\":true,\"data\":{\"jadwal\":" + day + "}}");
+            } catch (Exception e) {
+                // Skip day without date
+            }
+            pos = end + 1;
+        }
+        return days;
+    }
+
+    PrayerSchedule parsePrayerSchedule(String cityId, String date, String json) {
+        String jadwalPart = findJsonSection(json, "\"jadwal\":");
+        if (jadwalPart == null) return null;
+
+        PrayerSchedule schedule = new PrayerSchedule(cityId, date);
+        schedule.setTime("imsak", findJsonValue(jadwalPart, "\"imsak\""));
+        schedule.setTime("fajr", findJsonValue(jadwalPart, "\"subuh\""));
+        schedule.setTime("sunrise", findJsonValue(jadwalPart, "\"terbit\""));
+        schedule.setTime("dhuha", findJsonValue(jadwalPart, "\"dhuha\""));
+        schedule.setTime("dhuhr", findJsonValue(jadwalPart, "\"dzuhur\""));
+        schedule.setTime("asr", findJsonValue(jadwalPart, "\"ashar\""));
+        schedule.setTime("maghrib", findJsonValue(jadwalPart, "\"maghrib\""));
+        schedule.setTime("isya", findJsonValue(jadwalPart, "\"isya\""));
+        return schedule;
+    }
+
+    List<Map<String, String>> parseJsonList(String json) {
+        List<Map<String, String>> result = new ArrayList<>();
+        if (json == null) return result;
+
+        int lastPos = 0;
+        while ((lastPos = json.indexOf("{", lastPos)) != -1) {
+            int end = findClosingBrace(json, lastPos);
+            if (end == -1) break;
+
+            String objectJson = json.substring(lastPos, end + 1);
+            Map<String, String> map = new HashMap<>();
+            int pairPos = 0;
+            while ((pairPos = objectJson.indexOf("\"", pairPos)) != -1) {
+                int keyEnd = objectJson.indexOf("\"", pairPos + 1);
+                if (keyEnd == -1) break;
+                String k = objectJson.substring(pairPos + 1, keyEnd);
+
+                String v = findJsonValue(objectJson, "\"" + k + "\"");
+                if (v != null) {
+                    map.put(k, v);
+                }
+                pairPos = objectJson.indexOf(",", keyEnd);
+                if (pairPos == -1) break;
+            }
+
+            result.add(map);
+            lastPos = end + 1;
+        }
+        return result;
+    }
+
+    private String findJsonSection(String json, String key) {
+        int index = json.indexOf(key);
+        if (index == -1) return null;
+
+        int start = json.indexOf("{", index);
+        if (start == -1) return null;
+
+        int end = findClosingBrace(json, start);
+        if (end == -1) return null;
+
+        return json.substring(start, end + 1);
+    }
+
+    private int findClosingBrace(String json, int start) {
+        int depth = 0;
+        for (int i = start; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '{') depth++;
+            else if (c == '}') {
+                depth--;
+                if (depth == 0) return i;
+            }
+        }
+        return -1;
+    }
+
+    private String findJsonValue(String json, String key) {
+        int index = json.indexOf(key);
+        if (index == -1) return null;
+
+        int colon = json.indexOf(":", index);
+        if (colon == -1) return null;
+
+        int startQuote = json.indexOf("\"", colon);
+        if (startQuote == -1) return null;
+
+        int endQuote = json.indexOf("\"", startQuote + 1);
+        if (endQuote == -1) return null;
+
+        return json.substring(startQuote + 1, endQuote);
+    }
+}
@@ -0,0 +1,53 @@
+package jwsp.bench;
+
+import jwsp.domain.prayer.CalculationMethod;
+import jwsp.domain.prayer.EphemerisModel;
+import jwsp.domain.prayer.PrayerTimetable;
+import jwsp.domain.prayer.TimetableGenerator;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Biaya penyempurnaan Meeus: jadwal nasional satu tahun dengan model LOW_PRECISION
+ * (jalur batch) vs MEEUS (penyempurnaan saat kejadian per kota), plus selisih maksimum keduanya.
+ *
+ * Usage: ./run.sh bench MeeusBench
+ */
+public class MeeusBench {
+
+    public static void main(String[] args) {
+        int year = LocalDate.now().getYear();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        TimetableGenerator low = new TimetableGenerator(CalculationMethod.MWL, pool, EphemerisModel.LOW_PRECISION);
+        TimetableGenerator meeus = new TimetableGenerator(CalculationMethod.MWL, pool, EphemerisModel.MEEUS);
+
+        PrayerTimetable[] tables = new PrayerTimetable[2];
+        long lowNanos = Bench.best(() -> {
+            tables[0] = low.generateNational(year);
+            return tables[0].getData()[0];
+        });
+        long meeusNanos = Bench.best(() -> {
+            tables[1] = meeus.generateNational(year);
+            return tables[1].getData()[0];
+        });
+
+        int[] a = tables[0].getData();
+        int[] b = tables[1].getData();
+        int maxDiff = 0;
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            int d = Math.abs(a[i] - b[i]);
+            d = Math.min(d, 86400 - d);
+            maxDiff = Math.max(maxDiff, d);
+            sum += d;
+        }
+
+        System.out.println("National year " + year + ": " + tables[0].getCities().size() + " cities x "
+            + tables[0].getDays() + " days, MWL, " + pool.getParallelism() + " threads");
+        // Baseline di sini justru yang lebih cepat: yang diukur adalah biaya tambahan penyempurnaan
+        Bench.report("ephemeris model", "meeus+refine", meeusNanos, "low-precision", lowNanos, 1);
+        System.out.printf("refinement cost: +%.2f ms per national year, max diff %d s, mean %.2f s%n",
+            (meeusNanos - lowNanos) / 1e6, maxDiff, sum / a.length);
+    }
+}
@@ -0,0 +1,93 @@
+package jwsp.bench;
+
+import jwsp.api.ApiService;
+import jwsp.api.json.FlatObjectListVisitor;
+import jwsp.api.json.JsonTokenizer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput JsonTokenizer vs parser indexOf lama ({@link LegacyJsonParser}) untuk tiga bentuk
+ * respons: daftar kota (5000 objek datar), jadwal satu hari, dan pemecahan respons satu bulan.
+ *
+ * Usage: ./run.sh bench TokenizerBench
+ */
+public class TokenizerBench {
+
+    private static final int CITY_COUNT = 5000;
+    private static final int DAY_REPEAT = 2000;
+    private static final int MONTH_REPEAT = 200;
+
+    public static void main(String[] args) {
+        String cities = citiesJson();
+        String month = monthJson();
+        ApiService api = new ApiService();
+        LegacyJsonParser legacy = new LegacyJsonParser();
+        String day = api.splitMonthlyJson(month).values().iterator().next();
+
+        long oldCities = Bench.best(() -> legacy.parseJsonList(cities).size());
+        long newCities = Bench.best(() -> parseJsonList(cities).size());
+        long oldDay = Bench.best(() -> {
+            long s = 0;
+            for (int i = 0; i < DAY_REPEAT; i++) s += legacy.parsePrayerSchedule("1301", "x", day).hashCode();
+            return s;
+        });
+        long newDay = Bench.best(() -> {
+            long s = 0;
+            for (int i = 0; i < DAY_REPEAT; i++) s += api.parsePrayerSchedule("1301", "x", day).hashCode();
+            return s;
+        });
+        long oldSplit = Bench.best(() -> {
+            long s = 0;
+            for (int i = 0; i < MONTH_REPEAT; i++) s += legacy.splitMonthlyJson(month).size();
+            return s;
+        });
+        long newSplit = Bench.best(() -> {
+            long s = 0;
+            for (int i = 0; i < MONTH_REPEAT; i++) s += api.splitMonthlyJson(month).size();
+            return s;
+        });
+
+        System.out.printf("Payloads: cities %d KB, month %d KB, day %d B%n",
+            cities.length() / 1024, month.length() / 1024, day.length());
+        Bench.report("city list (5000)", "indexOf", oldCities, "tokenizer", newCities, 1);
+        Bench.report("single day", "indexOf", oldDay, "tokenizer", newDay, DAY_REPEAT);
+        Bench.report("month split (31 days)", "indexOf", oldSplit, "tokenizer", newSplit, MONTH_REPEAT);
+        System.out.printf("city list throughput: %.1f MB/s indexOf, %.1f MB/s tokenizer%n",
+            cities.length() / (oldCities / 1e9) / 1e6, cities.length() / (newCities / 1e9) / 1e6);
+        System.out.println("identical output: "
+            + (legacy.parseJsonList(cities).equals(parseJsonList(cities))
+               && legacy.splitMonthlyJson(month).keySet().equals(api.splitMonthlyJson(month).keySet())
+               && legacy.parsePrayerSchedule("1301", "x", day).hasSameTimes(api.parsePrayerSchedule("1301", "x", day))));
+    }
+
+    // Sama dengan ApiService.parseJsonList (privat)
+    private static List<Map<String, String>> parseJsonList(String json) {
+        FlatObjectListVisitor visitor = new FlatObjectListVisitor();
+        new JsonTokenizer(json).parse(visitor);
+        return visitor.getResult();
+    }
+
+    private static String citiesJson() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < CITY_COUNT; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":\"").append(1000 + i).append("\",\"lokasi\":\"KAB. NAMA KOTA ").append(i)
+              .append("\",\"provinsi\":\"PROVINSI ").append(i % 38).append("\",\"kode\":\"K").append(i).append("\"}");
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String monthJson() {
+        StringBuilder sb = new StringBuilder("{\"status\":true,\"data\":{\"id\":\"1301\",\"lokasi\":\"KOTA JAKARTA\","
+            + "\"daerah\":\"DKI JAKARTA\",\"jadwal\":[");
+        for (int d = 1; d <= 31; d++) {
+            if (d > 1) sb.append(',');
+            sb.append(String.format("{\"tanggal\":\"Senin, %02d/01/2024\",\"imsak\":\"04:11\",\"subuh\":\"04:21\","
+                + "\"terbit\":\"05:43\",\"dhuha\":\"06:11\",\"dzuhur\":\"12:00\",\"ashar\":\"15:26\","
+                + "\"maghrib\":\"18:12\",\"isya\":\"19:27\",\"date\":\"2024-01-%02d\"}", d, d));
+        }
+        return sb.append("]}}").toString();
+    }
+}
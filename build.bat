@@ -75,7 +75,7 @@ if not exist "%CLASSES_DIR%" mkdir "%CLASSES_DIR%"
 
 REM Compile all Java files
 dir /s /b "%SRC_DIR%\*.java" > "%BUILD_DIR%\sources.txt"
-javac -d "%CLASSES_DIR%" @"%BUILD_DIR%\sources.txt"
+javac --add-modules jdk.incubator.vector -d "%CLASSES_DIR%" @"%BUILD_DIR%\sources.txt"
 
 REM Copy resources
 if exist "%SRC_DIR%\data" xcopy /s /i /y "%SRC_DIR%\data" "%CLASSES_DIR%\data"
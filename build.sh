@@ -82,7 +82,7 @@ compile() {
     
     # Compile all Java files
     find "$SRC_DIR" -name "*.java" > "$BUILD_DIR/sources.txt"
-    javac -d "$CLASSES_DIR" @"$BUILD_DIR/sources.txt"
+    javac --add-modules jdk.incubator.vector -d "$CLASSES_DIR" @"$BUILD_DIR/sources.txt"
     
     # Copy resources
     cp -r "$SRC_DIR/data" "$CLASSES_DIR/" 2>/dev/null || true
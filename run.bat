@@ -64,6 +64,7 @@ set SOURCES=%TEMP%\jwsp_sources.txt
 dir /s /b "%SRC_DIR%\*.java" > "%SOURCES%"
 
 javac -encoding UTF-8 ^
+  --add-modules jdk.incubator.vector ^
   -d "%BIN_DIR%" ^
   -cp "lib/*" ^
   @"%SOURCES%"
@@ -9,6 +9,15 @@ APP_NAME="JWSP"
 SRC_DIR="src"
 BIN_DIR="bin"
 MAIN_CLASS="jwsp.app.Main"
+CLASSPATH_RUN="$BIN_DIR:lib/*"
+
+# ./run.sh bench <Nama>  -> jalankan jwsp.bench.<Nama> (benchmark / cek tanpa UI)
+# Sumber harness ada di bench/, terpisah dari src/ agar tidak ikut ke JAR aplikasi
+BENCH_SRC_DIR="bench"
+BENCH_BIN_DIR="bin-bench"
+if [ "$1" = "bench" ]; then
+    MAIN_CLASS="jwsp.bench.${2:?Usage: ./run.sh bench <Nama>}"
+fi
 
 JAVA_URL="https://download.java.net/java/GA/jdk25.0.1/2fbf10d8c78e40bd87641c434705079d/8/GPL/openjdk-25.0.1_linux-x64_bin.tar.gz"
 JAVA_ARCHIVE="/tmp/openjdk25.tar.gz"
@@ -47,14 +56,29 @@ SOURCE_LIST=$(mktemp)
 find "$SRC_DIR" -name "*.java" > "$SOURCE_LIST"
 
 javac -encoding UTF-8 \
+  --add-modules jdk.incubator.vector \
   -d "$BIN_DIR" \
   -cp "lib/*" \
   @"$SOURCE_LIST"
 
+if [ "$1" = "bench" ]; then
+    echo "Compiling benchmarks..."
+    mkdir -p "$BENCH_BIN_DIR"
+    find "$BENCH_SRC_DIR" -name "*.java" > "$SOURCE_LIST"
+
+    javac -encoding UTF-8 \
+      --add-modules jdk.incubator.vector \
+      -d "$BENCH_BIN_DIR" \
+      -cp "$BIN_DIR:lib/*" \
+      @"$SOURCE_LIST"
+
+    CLASSPATH_RUN="$BENCH_BIN_DIR:$CLASSPATH_RUN"
+fi
+
 rm "$SOURCE_LIST"
 
 # =====================================
 # RUN
 # =====================================
-echo "Starting JWSP..."
-java -cp "$BIN_DIR:lib/*" "$MAIN_CLASS"
+echo "Starting $MAIN_CLASS..."
+java --add-modules jdk.incubator.vector -cp "$CLASSPATH_RUN" "$MAIN_CLASS"
@@ -1,21 +1,88 @@
 package jwsp.api;
 
+import jwsp.api.json.FlatObjectListVisitor;
+import jwsp.api.json.JsonTokenizer;
+import jwsp.api.json.ScheduleVisitor;
 import jwsp.domain.prayer.PrayerSchedule;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
 
 public class ApiService {
 
     private static final String BASE_URL_CUACA = "https://weather-api-tau-six.vercel.app";
-    private static final String BASE_URL_JADWAL = "https://api.myquran.com/v2/sholat/jadwal";
+    public static final String BASE_URL_JADWAL = "https://api.myquran.com/v2/sholat/jadwal";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    // Satu client untuk seluruh aplikasi: koneksi keep-alive dipakai ulang dan
+    // request HTTP/2 ke host yang sama dimultipleks di atas satu koneksi TLS
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(TIMEOUT)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+
+    // Saat host tidak terjangkau, request berikutnya langsung gagal tanpa menunggu timeout
+    private static final CircuitBreaker JADWAL_BREAKER = new CircuitBreaker("myquran");
+    private static final CircuitBreaker CUACA_BREAKER = new CircuitBreaker("cuaca");
+    // Breaker untuk base URL jadwal lain (mirror, server uji lokal)
+    private static final Map<String, CircuitBreaker> OTHER_BREAKERS = new ConcurrentHashMap<>();
+
+    private final String jadwalBaseUrl;
+
+    public ApiService() {
+        this(BASE_URL_JADWAL);
+    }
+
+    /**
+     * @param jadwalBaseUrl base URL endpoint jadwal dengan format myquran (/{kota}/{tanggal})
+     */
+    public ApiService(String jadwalBaseUrl) {
+        this.jadwalBaseUrl = jadwalBaseUrl;
+    }
+
+    public String getJadwalBaseUrl() {
+        return jadwalBaseUrl;
+    }
+
+    /**
+     * Hasil request bersyarat: body baru beserta validatornya, atau notModified (304) tanpa body
+     */
+    public static class FetchResult {
+        public final String body;
+        public final boolean notModified;
+        public final ResponseMetadata metadata;
+
+        FetchResult(String body, boolean notModified, ResponseMetadata metadata) {
+            this.body = body;
+            this.notModified = notModified;
+            this.metadata = metadata;
+        }
+    }
+
+    /**
+     * Breaker API jadwal sholat (untuk indikator status di UI)
+     */
+    public static CircuitBreaker getScheduleBreaker() {
+        return JADWAL_BREAKER;
+    }
 
     /**
      * Fetch prayer schedule for a specific city and date
@@ -27,26 +94,100 @@ public class ApiService {
     }
 
     public String fetchRawJson(String cityId, String date) {
-        String urlString = String.format("%s/%s/%s", BASE_URL_JADWAL, cityId, date);
-        return makeHttpRequest(urlString);
+        return makeHttpRequest(jadwalUrl(cityId, date));
     }
 
-    public PrayerSchedule parsePrayerSchedule(String cityId, String date, String json) {
-        // Simple parsing for "jadwal": { ... }
-        String jadwalPart = findJsonSection(json, "\"jadwal\":");
-        if (jadwalPart == null) return null;
+    /**
+     * Versi async {@link #fetchPrayerSchedule}; selesai dengan null jika gagal
+     */
+    public CompletableFuture<PrayerSchedule> fetchPrayerScheduleAsync(String cityId, String date) {
+        return fetchRawJsonAsync(cityId, date)
+            .thenApply(json -> json == null ? null : parsePrayerSchedule(cityId, date, json));
+    }
 
-        PrayerSchedule schedule = new PrayerSchedule(cityId, date);
-        schedule.setTime("imsak", findJsonValue(jadwalPart, "\"imsak\""));
-        schedule.setTime("fajr", findJsonValue(jadwalPart, "\"subuh\""));
-        schedule.setTime("sunrise", findJsonValue(jadwalPart, "\"terbit\""));
-        schedule.setTime("dhuha", findJsonValue(jadwalPart, "\"dhuha\""));
-        schedule.setTime("dhuhr", findJsonValue(jadwalPart, "\"dzuhur\""));
-        schedule.setTime("asr", findJsonValue(jadwalPart, "\"ashar\""));
-        schedule.setTime("maghrib", findJsonValue(jadwalPart, "\"maghrib\""));
-        schedule.setTime("isya", findJsonValue(jadwalPart, "\"isya\""));
+    public CompletableFuture<String> fetchRawJsonAsync(String cityId, String date) {
+        return makeHttpRequestAsync(jadwalUrl(cityId, date));
+    }
+
+    /**
+     * Request bersyarat (If-None-Match / If-Modified-Since) memakai validator dari cache.
+     * Selesai dengan null jika gagal; {@link FetchResult#notModified} jika jadwal tidak berubah.
+     */
+    public CompletableFuture<FetchResult> fetchRawJsonConditionalAsync(String cityId, String date,
+                                                                      ResponseMetadata validators) {
+        String urlString = jadwalUrl(cityId, date);
+        HttpRequest request;
+        try {
+            request = newRequest(urlString, validators);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return sendAsync(urlString, request).thenApply(response -> {
+            if (response == null) return null;
+            if (response.statusCode() == 304) {
+                return new FetchResult(null, true, validators);
+            }
+            try {
+                String body = decodeBody(response);
+                return body == null ? null : new FetchResult(body, false, ResponseMetadata.from(response));
+            } catch (IOException e) {
+                return null;
+            }
+        });
+    }
+
+    private String jadwalUrl(String cityId, String date) {
+        return String.format("%s/%s/%s", jadwalBaseUrl, cityId, date);
+    }
+
+    /**
+     * Jadwal satu bulan penuh dalam satu request (/jadwal/{kota}/{yyyy}/{MM})
+     */
+    public String fetchMonthlyRawJson(String cityId, YearMonth month) {
+        return makeHttpRequest(monthlyUrl(cityId, month));
+    }
 
-        return schedule;
+    public CompletableFuture<String> fetchMonthlyRawJsonAsync(String cityId, YearMonth month) {
+        return makeHttpRequestAsync(monthlyUrl(cityId, month));
+    }
+
+    private String monthlyUrl(String cityId, YearMonth month) {
+        return String.format("%s/%s/%04d/%02d", jadwalBaseUrl, cityId, month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * Pecah respons bulanan menjadi JSON per hari dengan bentuk yang sama seperti respons harian
+     * ({"data":{"jadwal":{...}}}), sehingga bisa langsung disimpan ke cache dan di-parse ulang.
+     * Hari tanpa field "date" yang valid dilewati.
+     */
+    public Map<LocalDate, String> splitMonthlyJson(String json) {
+        Map<LocalDate, String> days = new TreeMap<>();
+        if (json == null) return days;
+
+        for (ScheduleVisitor.Day day : parseDays(null, null, json)) {
+            if (day.date == null) continue;
+            days.put(day.date, "{\"status\":true,\"data\":{\"jadwal\":" + json.substring(day.start, day.end) + "}}");
+        }
+        return days;
+    }
+
+    public PrayerSchedule parsePrayerSchedule(String cityId, String date, String json) {
+        List<ScheduleVisitor.Day> days = parseDays(cityId, date, json);
+        return days.isEmpty() ? null : days.get(0).schedule;
+    }
+
+    /**
+     * Semua hari di bawah "jadwal" dalam satu lintasan; list kosong jika JSON tidak valid
+     */
+    private List<ScheduleVisitor.Day> parseDays(String cityId, String date, String json) {
+        JsonTokenizer tokenizer = new JsonTokenizer(json);
+        ScheduleVisitor visitor = new ScheduleVisitor(tokenizer, cityId, date);
+        try {
+            tokenizer.parse(visitor);
+        } catch (IllegalArgumentException e) {
+            return new ArrayList<>();
+        }
+        return visitor.getDays();
     }
 
     /**
@@ -67,111 +208,150 @@ public class ApiService {
         return parseJsonList(json);
     }
 
+    /**
+     * Versi async {@link #fetchCities}; list kosong jika gagal
+     */
+    public CompletableFuture<List<Map<String, String>>> fetchCitiesAsync(String provinceId) {
+        String urlString = BASE_URL_CUACA + "/cuaca/getIdKabupaten/" + provinceId;
+        return makeHttpRequestAsync(urlString).thenApply(this::parseJsonList);
+    }
+
     private String makeHttpRequest(String urlString) {
-        HttpURLConnection conn = null;
+        HttpRequest request;
         try {
-            URL url = URI.create(urlString).toURL();
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
+            request = newRequest(urlString, ResponseMetadata.EMPTY);
+        } catch (IllegalArgumentException e) {
+            // URL tidak valid: kesalahan lokal, bukan kegagalan host
+            return null;
+        }
 
-            if (conn.getResponseCode() != 200) {
-                return null;
-            }
+        CircuitBreaker breaker = breakerFor(urlString);
+        long permit = breaker.acquire();
+        if (permit == CircuitBreaker.REJECTED) return null;
 
-            BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            StringBuilder content = new StringBuilder();
-            String inputLine;
-            while ((inputLine = in.readLine()) != null) {
-                content.append(inputLine);
-            }
-            in.close();
-            return content.toString();
-        } catch (Exception e) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = CLIENT.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            breaker.release(permit);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (IOException e) {
+            breaker.onFailure(permit);
+            return null;
+        } catch (RuntimeException e) {
+            breaker.release(permit);
             return null;
-        } finally {
-            if (conn != null) conn.disconnect();
         }
+
+        // Hasil dicatat tepat sekali: body rusak (gzip gagal) dihitung satu kegagalan
+        String body;
+        try {
+            body = decodeBody(response);
+        } catch (IOException e) {
+            breaker.onFailure(permit);
+            return null;
+        }
+        recordResponse(breaker, permit, response, start);
+        return body;
     }
 
-    // --- Primitive JSON parsing helpers ---
-
-    private String findJsonSection(String json, String key) {
-        int index = json.indexOf(key);
-        if (index == -1) return null;
-        
-        int start = json.indexOf("{", index);
-        if (start == -1) return null;
-        
-        int end = findClosingBrace(json, start);
-        if (end == -1) return null;
-        
-        return json.substring(start, end + 1);
-    }
-
-    private int findClosingBrace(String json, int start) {
-        int depth = 0;
-        for (int i = start; i < json.length(); i++) {
-            char c = json.charAt(i);
-            if (c == '{') depth++;
-            else if (c == '}') {
-                depth--;
-                if (depth == 0) return i;
+    private CompletableFuture<String> makeHttpRequestAsync(String urlString) {
+        HttpRequest request;
+        try {
+            request = newRequest(urlString, ResponseMetadata.EMPTY);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return sendAsync(urlString, request).thenApply(response -> {
+            try {
+                return response == null ? null : decodeBody(response);
+            } catch (IOException e) {
+                return null;
             }
+        });
+    }
+
+    /**
+     * Kirim lewat breaker host; selesai dengan null jika ditolak breaker atau gagal jaringan
+     */
+    private CompletableFuture<HttpResponse<byte[]>> sendAsync(String urlString, HttpRequest request) {
+        CircuitBreaker breaker = breakerFor(urlString);
+        long permit = breaker.acquire();
+        if (permit == CircuitBreaker.REJECTED) {
+            return CompletableFuture.completedFuture(null);
         }
-        return -1;
+
+        long start = System.nanoTime();
+        return CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, e) -> {
+                if (e != null) {
+                    breaker.onFailure(permit);
+                } else {
+                    recordResponse(breaker, permit, response, start);
+                }
+            })
+            .exceptionally(e -> null);
     }
 
-    private String findJsonValue(String json, String key) {
-        int index = json.indexOf(key);
-        if (index == -1) return null;
-        
-        int colon = json.indexOf(":", index);
-        if (colon == -1) return null;
-        
-        int startQuote = json.indexOf("\"", colon);
-        if (startQuote == -1) return null;
-        
-        int endQuote = json.indexOf("\"", startQuote + 1);
-        if (endQuote == -1) return null;
-        
-        return json.substring(startQuote + 1, endQuote);
+    private CircuitBreaker breakerFor(String urlString) {
+        if (!urlString.startsWith(jadwalBaseUrl)) return CUACA_BREAKER;
+        if (jadwalBaseUrl.equals(BASE_URL_JADWAL)) return JADWAL_BREAKER;
+        return OTHER_BREAKERS.computeIfAbsent(jadwalBaseUrl, CircuitBreaker::new);
     }
 
-    private List<Map<String, String>> parseJsonList(String json) {
-        List<Map<String, String>> result = new ArrayList<>();
-        if (json == null) return result;
-
-        // Assume format is like [{...}, {...}]
-        int lastPos = 0;
-        while ((lastPos = json.indexOf("{", lastPos)) != -1) {
-            int end = findClosingBrace(json, lastPos);
-            if (end == -1) break;
-            
-            String objectJson = json.substring(lastPos, end + 1);
-            Map<String, String> map = new HashMap<>();
-            
-            // Very naive loop to extract key-value pairs
-            // This assumes simple objects with string values
-            int pairPos = 0;
-            while ((pairPos = objectJson.indexOf("\"", pairPos)) != -1) {
-                int keyEnd = objectJson.indexOf("\"", pairPos + 1);
-                if (keyEnd == -1) break;
-                String k = objectJson.substring(pairPos + 1, keyEnd);
-                
-                String v = findJsonValue(objectJson, "\"" + k + "\"");
-                if (v != null) {
-                    map.put(k, v);
-                }
-                pairPos = objectJson.indexOf(",", keyEnd);
-                if (pairPos == -1) break;
+    private static void recordResponse(CircuitBreaker breaker, long permit, HttpResponse<?> response,
+                                       long startNanos) {
+        if (response.statusCode() >= 500) {
+            breaker.onFailure(permit);
+        } else {
+            breaker.onSuccess(permit, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    private HttpRequest newRequest(String urlString, ResponseMetadata validators) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(urlString))
+            .timeout(TIMEOUT)
+            .header("Accept", "application/json")
+            .header("Accept-Encoding", "gzip")
+            .GET();
+        if (validators.etag != null) {
+            builder.header("If-None-Match", validators.etag);
+        }
+        if (validators.lastModified != null) {
+            builder.header("If-Modified-Since", validators.lastModified);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Body sebagai teks UTF-8 (gzip didekode), atau null jika status bukan 200
+     */
+    private String decodeBody(HttpResponse<byte[]> response) throws IOException {
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        byte[] body = response.body();
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+            .map(v -> v.equalsIgnoreCase("gzip")).orElse(false);
+        if (gzip) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                body = in.readAllBytes();
             }
-            
-            result.add(map);
-            lastPos = end + 1;
         }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    private List<Map<String, String>> parseJsonList(String json) {
+        if (json == null) return new ArrayList<>();
 
-        return result;
+        FlatObjectListVisitor visitor = new FlatObjectListVisitor();
+        try {
+            new JsonTokenizer(json).parse(visitor);
+        } catch (IllegalArgumentException e) {
+            return new ArrayList<>();
+        }
+        return visitor.getResult();
     }
 }
@@ -0,0 +1,547 @@
+package jwsp.api;
+
+import jwsp.domain.prayer.PrayerSchedule;
+import jwsp.domain.prayer.PrayerTimeCalculator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Penyimpanan jadwal resmi dalam satu file biner yang di-memory-map.
+ *
+ * Header 16 byte ("JWSB", versi, ukuran record), lalu record 24 byte:
+ * <pre>
+ *   0  u16  index kota (baris ke-n pada file .cities)
+ *   2  i32  epoch day
+ *   6  u16  x8 menit sejak 00:00 per slot (urutan PrayerTimeCalculator, 0xFFFF = kosong)
+ *  22  u16  commit marker (checksum 22 byte sebelumnya, tidak pernah 0)
+ * </pre>
+ * Record hanya ditambahkan di akhir. Isi record di-force ke disk sebelum marker ditulis, jadi
+ * record yang terpotong karena crash tidak lolos validasi saat file dibuka dan dibuang.
+ * Record terakhir untuk (kota, hari) yang sama yang berlaku.
+ *
+ * Pencarian O(1) lewat index di memori (dibangun sekali saat dibuka) dan dibaca langsung dari
+ * mapping tanpa menyalin atau mem-parse JSON. Tanggal sebelum 1970 tidak didukung.
+ *
+ * {@link #compact(long)} menulis ulang file tanpa record lama/tertimpa ke file sementara, melepas
+ * semua mapping (Windows tidak mengizinkan file yang masih di-map diganti), lalu menggantinya
+ * secara atomik dan me-map ulang. Pembaca memegang read lock selama menyentuh mapping, jadi tidak
+ * pernah membaca buffer yang sudah dilepas.
+ */
+public class BinaryScheduleStore {
+
+    public static final int RECORD_SIZE = 24;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x4A575342; // "JWSB"
+    private static final short VERSION = 1;
+    private static final int SLOTS = PrayerTimeCalculator.TIMES_PER_DAY;
+    private static final int EMPTY_MINUTE = 0xFFFF;
+    private static final int MARKER_OFFSET = 22;
+    // Mapping diperbesar per blok agar tidak remap setiap append
+    private static final int GROW_RECORDS = 4096;
+    private static final int STALE = -2;
+
+    // sun.misc.Unsafe#invokeCleaner untuk melepas mapping segera; null jika tidak tersedia
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method cleaner = null;
+        try {
+            Class<?> c = Class.forName("sun.misc.Unsafe");
+            Field f = c.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            unsafe = f.get(null);
+            cleaner = c.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Mapping dilepas oleh GC; compact bisa gagal di Windows
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = cleaner;
+    }
+
+    private final Path file;
+    private final Path cityFile;
+    private FileChannel channel;
+    // Mapping dan index selalu dipublikasikan berpasangan (lihat compact)
+    private volatile Mapping current;
+    private int count;
+    // Semua mapping yang pernah dibuat pada channel ini (termasuk sebelum diperbesar)
+    private final List<MappedByteBuffer> mappings = new ArrayList<>();
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private final List<String> cities = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> cityIndex = new ConcurrentHashMap<>();
+
+    private static final class Mapping {
+        final MappedByteBuffer buffer;
+        final RecordIndex index;
+
+        Mapping(MappedByteBuffer buffer, RecordIndex index) {
+            this.buffer = buffer;
+            this.index = index;
+        }
+    }
+
+    public BinaryScheduleStore(Path file) throws IOException {
+        this.file = file;
+        this.cityFile = file.resolveSibling(file.getFileName() + ".cities");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        loadCities();
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        open();
+    }
+
+    private void open() throws IOException {
+        long size = channel.size();
+        if (size >= HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // baca header penuh
+            }
+            if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION || header.getShort(6) != RECORD_SIZE) {
+                throw new IOException("Format file jadwal tidak dikenal: " + file);
+            }
+        }
+
+        // File bisa lebih panjang dari isinya (kapasitas cadangan berisi nol)
+        long records = Math.max(0, (size - HEADER_SIZE) / RECORD_SIZE);
+        MappedByteBuffer buffer = map(Math.max(records, GROW_RECORDS));
+        RecordIndex index = new RecordIndex();
+        if (size < HEADER_SIZE) {
+            buffer.putInt(0, MAGIC);
+            buffer.putShort(4, VERSION);
+            buffer.putShort(6, (short) RECORD_SIZE);
+            buffer.force(0, HEADER_SIZE);
+        }
+
+        // Record valid berurutan sampai marker pertama yang tidak cocok (sisa append yang terputus)
+        int n = 0;
+        while (n < records) {
+            int pos = HEADER_SIZE + n * RECORD_SIZE;
+            if ((buffer.getShort(pos + MARKER_OFFSET) & 0xFFFF) != checksum(buffer, pos)) break;
+            int city = buffer.getShort(pos) & 0xFFFF;
+            int epochDay = buffer.getInt(pos + 2);
+            if (city >= cities.size() || !RecordIndex.isIndexable(epochDay)) break;
+            index.put(key(city, epochDay), n);
+            n++;
+        }
+        count = n;
+
+        // Bersihkan ekor yang rusak agar append berikutnya tidak bercampur sisa lama
+        for (int pos = HEADER_SIZE + n * RECORD_SIZE; pos < HEADER_SIZE + records * RECORD_SIZE; pos++) {
+            buffer.put(pos, (byte) 0);
+        }
+        current = new Mapping(buffer, index);
+    }
+
+    private MappedByteBuffer map(long records) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + records * RECORD_SIZE);
+        mappings.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Lepas semua mapping dan tutup channel; pemanggil memegang write lock
+     */
+    private void release() throws IOException {
+        current.buffer.force();
+        if (INVOKE_CLEANER != null) {
+            for (MappedByteBuffer buffer : mappings) {
+                try {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                } catch (ReflectiveOperationException e) {
+                    // Dibiarkan untuk GC
+                }
+            }
+        }
+        mappings.clear();
+        current = null;
+        channel.close();
+    }
+
+    /**
+     * Index yang sedang berlaku (tetap valid di heap walau mapping kemudian diganti)
+     */
+    private RecordIndex index() {
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            return current.index;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return index().size();
+    }
+
+    public boolean contains(String cityId, LocalDate date) {
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            int pos;
+            do {
+                pos = find(current, cityId, date);
+            } while (pos == STALE);
+            return pos >= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Baca menit per slot langsung dari mapping
+     * @param out minimal TIMES_PER_DAY elemen; -1 untuk slot kosong
+     * @return false jika tidak ada record
+     */
+    public boolean readMinutes(String cityId, LocalDate date, int[] out) {
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            Mapping m;
+            int pos;
+            do {
+                m = current;
+                pos = find(m, cityId, date);
+            } while (pos == STALE);
+            if (pos < 0) return false;
+            MappedByteBuffer b = m.buffer;
+            for (int k = 0; k < SLOTS; k++) {
+                int minute = b.getShort(pos + 6 + 2 * k) & 0xFFFF;
+                out[k] = minute == EMPTY_MINUTE ? -1 : minute;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Jadwal sebagai snapshot immutable, atau null
+     */
+    public PrayerSchedule load(String cityId, LocalDate date) {
+        int[] minutes = new int[SLOTS];
+        if (!readMinutes(cityId, date, minutes)) return null;
+        PrayerSchedule ps = new PrayerSchedule(cityId, date.toString());
+        for (int k = 0; k < SLOTS; k++) {
+            if (minutes[k] >= 0) {
+                ps.setTime(PrayerTimeCalculator.SLOT_KEYS[k], LocalTime.of(minutes[k] / 60, minutes[k] % 60));
+            }
+        }
+        return ps.snapshot();
+    }
+
+    public void save(PrayerSchedule schedule) throws IOException {
+        saveAll(List.of(schedule));
+    }
+
+    /**
+     * Tambahkan banyak jadwal dengan dua kali force saja (isi, lalu marker).
+     * Jadwal yang waktunya sama dengan record terakhir tidak ditulis ulang.
+     */
+    public synchronized void saveAll(List<PrayerSchedule> schedules) throws IOException {
+        List<PrayerSchedule> changed = new ArrayList<>();
+        for (PrayerSchedule ps : schedules) {
+            if (!RecordIndex.isIndexable(LocalDate.parse(ps.getDate()).toEpochDay())) {
+                throw new IllegalArgumentException("Tanggal di luar jangkauan store: " + ps.getDate());
+            }
+            if (!ps.hasSameTimes(load(ps.getCityId(), LocalDate.parse(ps.getDate())))) changed.add(ps);
+        }
+        if (changed.isEmpty()) return;
+
+        Mapping m = current;
+        if ((long) HEADER_SIZE + (long) (count + changed.size()) * RECORD_SIZE > m.buffer.capacity()) {
+            // Index yang sama: pembaca dengan mapping lama tidak melihat record baru (lihat find)
+            m = new Mapping(map(count + changed.size() + GROW_RECORDS), m.index);
+            current = m;
+        }
+        MappedByteBuffer b = m.buffer;
+        int first = count;
+        int[] cityOf = new int[changed.size()];
+        for (int i = 0; i < changed.size(); i++) {
+            PrayerSchedule ps = changed.get(i);
+            cityOf[i] = cityIndexFor(ps.getCityId());
+            int pos = HEADER_SIZE + (first + i) * RECORD_SIZE;
+            b.putShort(pos, (short) cityOf[i]);
+            b.putInt(pos + 2, (int) LocalDate.parse(ps.getDate()).toEpochDay());
+            for (int k = 0; k < SLOTS; k++) {
+                LocalTime t = ps.getTime(PrayerTimeCalculator.SLOT_KEYS[k]);
+                int minute = t != null ? t.getHour() * 60 + t.getMinute() : EMPTY_MINUTE;
+                b.putShort(pos + 6 + 2 * k, (short) minute);
+            }
+        }
+        int start = HEADER_SIZE + first * RECORD_SIZE;
+        int length = changed.size() * RECORD_SIZE;
+        b.force(start, length);
+
+        for (int i = 0; i < changed.size(); i++) {
+            int pos = start + i * RECORD_SIZE;
+            b.putShort(pos + MARKER_OFFSET, (short) checksum(b, pos));
+        }
+        b.force(start, length);
+
+        count += changed.size();
+        for (int i = 0; i < changed.size(); i++) {
+            int pos = start + i * RECORD_SIZE;
+            m.index.put(key(cityOf[i], b.getInt(pos + 2)), first + i);
+        }
+    }
+
+    /**
+     * Tulis ulang file hanya dengan record terbaru per (kota, hari) mulai minEpochDay.
+     * Tidak melakukan apa pun jika tidak ada yang bisa dibuang.
+     * @return jumlah record yang dibuang
+     */
+    public synchronized int compact(long minEpochDay) throws IOException {
+        Mapping m = current;
+        List<Integer> keep = new ArrayList<>();
+        m.index.forEach((k, record) -> {
+            if ((k & RecordIndex.DAY_MASK) >= minEpochDay) keep.add(record);
+        });
+        int before = count;
+        if (keep.size() == before) return 0;
+        keep.sort(null);
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + keep.size() * RECORD_SIZE);
+        out.put(m.buffer.duplicate().position(0).limit(HEADER_SIZE));
+        for (int record : keep) {
+            int pos = HEADER_SIZE + record * RECORD_SIZE;
+            out.put(m.buffer.duplicate().position(pos).limit(pos + RECORD_SIZE));
+        }
+        out.flip();
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) ch.write(out);
+            ch.force(true);
+        }
+
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        try {
+            release();
+            IOException failure = null;
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // File lama tetap utuh; buka lagi dan laporkan ke pemanggil
+                Files.deleteIfExists(tmp);
+                failure = e;
+            }
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            open();
+            if (failure != null) throw failure;
+        } finally {
+            lock.unlock();
+        }
+        return before - keep.size();
+    }
+
+    /**
+     * Jumlah entri per epoch day, urut dari hari tertua
+     */
+    public NavigableMap<Long, Integer> dayHistogram() {
+        NavigableMap<Long, Integer> days = new TreeMap<>();
+        index().forEach((k, record) -> days.merge(k & RecordIndex.DAY_MASK, 1, Integer::sum));
+        return days;
+    }
+
+    /**
+     * Ukuran file di disk, termasuk kapasitas cadangan
+     */
+    public synchronized long fileBytes() throws IOException {
+        return channel.size() + (Files.exists(cityFile) ? Files.size(cityFile) : 0);
+    }
+
+    /**
+     * Semua (kota, hari) yang tersimpan
+     */
+    public List<OfflineCacheService.Entry> listEntries() {
+        List<OfflineCacheService.Entry> entries = new ArrayList<>();
+        index().forEach((k, record) -> entries.add(new OfflineCacheService.Entry(
+            cities.get((int) (k >>> RecordIndex.DAY_BITS)), LocalDate.ofEpochDay(k & RecordIndex.DAY_MASK))));
+        return entries;
+    }
+
+    public synchronized void close() throws IOException {
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return offset record di m.buffer, -1 jika tidak ada, atau STALE jika record ada di luar
+     * mapping ini (mapping sudah diperbesar; ambil ulang current)
+     */
+    private int find(Mapping m, String cityId, LocalDate date) {
+        Integer city = cityIndex.get(cityId);
+        if (city == null) return -1;
+        long epochDay = date.toEpochDay();
+        if (!RecordIndex.isIndexable(epochDay)) return -1;
+        int n = m.index.get(key(city, (int) epochDay));
+        if (n < 0) return -1;
+        int pos = HEADER_SIZE + n * RECORD_SIZE;
+        return pos + RECORD_SIZE <= m.buffer.capacity() ? pos : STALE;
+    }
+
+    private int cityIndexFor(String cityId) throws IOException {
+        Integer known = cityIndex.get(cityId);
+        if (known != null) return known;
+        if (cities.size() > 0xFFFF) throw new IOException("Terlalu banyak kota di " + file);
+
+        // Daftar kota harus sudah di disk sebelum record yang merujuknya di-commit
+        try (FileChannel out = FileChannel.open(cityFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            out.write(StandardCharsets.UTF_8.encode(cityId + "\n"));
+            out.force(true);
+        }
+        int i = cities.size();
+        cities.add(cityId);
+        cityIndex.put(cityId, i);
+        return i;
+    }
+
+    private void loadCities() throws IOException {
+        if (!Files.exists(cityFile)) return;
+        String content = new String(Files.readAllBytes(cityFile), StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n') + 1;
+        for (String id : content.substring(0, end).split("\n")) {
+            if (id.isEmpty()) continue;
+            cityIndex.put(id, cities.size());
+            cities.add(id);
+        }
+        if (end < content.length()) {
+            // Baris terakhir terpotong: belum ada record yang merujuknya, tulis ulang tanpa baris itu
+            Path tmp = cityFile.resolveSibling(cityFile.getFileName() + ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                out.write(content, 0, end);
+            }
+            Files.move(tmp, cityFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private static long key(int city, int epochDay) {
+        return ((long) city << RecordIndex.DAY_BITS) | epochDay;
+    }
+
+    private static int checksum(MappedByteBuffer b, int pos) {
+        int h = 0x5A5A;
+        for (int i = 0; i < MARKER_OFFSET; i += 2) {
+            h = (h * 31 + (b.getShort(pos + i) & 0xFFFF)) & 0xFFFF;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Hash table terbuka (linear probing) dari key (kota, hari) ke nomor record, tanpa boxing.
+     * Setiap slot satu long: key 36 bit (16 bit kota + 20 bit epoch day) di atas, nomor record + 1
+     * (28 bit) di bawah; 0 = kosong. Slot ditulis atomik sehingga pembaca tidak perlu lock;
+     * hanya satu penulis (saveAll yang synchronized). Saat penuh, tabel baru dipublikasikan lewat
+     * field volatile.
+     */
+    private static final class RecordIndex {
+        static final int DAY_BITS = 20;
+        static final long DAY_MASK = (1L << DAY_BITS) - 1;
+        private static final int RECORD_BITS = 28;
+        private static final long RECORD_MASK = (1L << RECORD_BITS) - 1;
+
+        private volatile AtomicLongArray slots = new AtomicLongArray(1 << 12);
+        private volatile int size;
+
+        /**
+         * Tahun 1970 sampai sekitar 4840
+         */
+        static boolean isIndexable(long epochDay) {
+            return epochDay >= 0 && epochDay <= DAY_MASK;
+        }
+
+        int get(long key) {
+            AtomicLongArray t = slots;
+            int mask = t.length() - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                long slot = t.get(i);
+                if (slot == 0) return -1;
+                if (slot >>> RECORD_BITS == key) return (int) (slot & RECORD_MASK) - 1;
+            }
+        }
+
+        void put(long key, int record) {
+            if (record + 1L > RECORD_MASK) throw new IllegalStateException("Store jadwal penuh");
+            if (insert(slots, key, record) && ++size * 2 > slots.length()) {
+                AtomicLongArray grown = new AtomicLongArray(slots.length() * 2);
+                AtomicLongArray old = slots;
+                for (int i = 0; i < old.length(); i++) {
+                    long slot = old.get(i);
+                    if (slot != 0) insert(grown, slot >>> RECORD_BITS, (int) (slot & RECORD_MASK) - 1);
+                }
+                slots = grown;
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        interface EntryConsumer {
+            void accept(long key, int record);
+        }
+
+        void forEach(EntryConsumer action) {
+            AtomicLongArray t = slots;
+            for (int i = 0; i < t.length(); i++) {
+                long slot = t.get(i);
+                if (slot != 0) action.accept(slot >>> RECORD_BITS, (int) (slot & RECORD_MASK) - 1);
+            }
+        }
+
+        /**
+         * @return true jika key baru
+         */
+        private static boolean insert(AtomicLongArray t, long key, int record) {
+            int mask = t.length() - 1;
+            long entry = (key << RECORD_BITS) | (record + 1L);
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                long slot = t.get(i);
+                if (slot == 0 || slot >>> RECORD_BITS == key) {
+                    t.set(i, entry);
+                    return slot == 0;
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package jwsp.api;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Segmen arsip JSON mentah: satu zip per bulan (archive/prayer_yyyy-MM.zip) berisi file
+ * prayer_{kota}_{tanggal}.json yang sebelumnya tersimpan terpisah. Segmen ditulis ulang ke
+ * file sementara lalu di-rename atomik, jadi selalu utuh.
+ */
+public class CacheArchive {
+
+    private static final String SEGMENT_PREFIX = "prayer_";
+    private static final String SEGMENT_SUFFIX = ".zip";
+
+    private final Path dir;
+
+    public CacheArchive(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Tambahkan (atau timpa) entri ke segmen bulan masing-masing
+     * @param jsonByName nama file per hari -> isi JSON
+     */
+    public void add(YearMonth month, Map<String, String> jsonByName) throws IOException {
+        if (jsonByName.isEmpty()) return;
+        Files.createDirectories(dir);
+        Path segment = segmentFile(month);
+
+        Map<String, byte[]> entries = new TreeMap<>();
+        if (Files.exists(segment)) {
+            try (ZipFile zip = new ZipFile(segment.toFile())) {
+                Enumeration<? extends ZipEntry> it = zip.entries();
+                while (it.hasMoreElements()) {
+                    ZipEntry e = it.nextElement();
+                    try (InputStream in = zip.getInputStream(e)) {
+                        entries.put(e.getName(), in.readAllBytes());
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, String> e : jsonByName.entrySet()) {
+            entries.put(e.getKey(), e.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+
+        Path tmp = segment.resolveSibling(segment.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp.toFile()); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, byte[]> e : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(e.getKey()));
+                zip.write(e.getValue());
+                zip.closeEntry();
+            }
+            zip.finish();
+            // Segmen harus utuh di disk sebelum menggantikan yang lama (file JSON asli lalu dihapus)
+            out.getFD().sync();
+        }
+        Files.move(tmp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Isi JSON yang diarsipkan, atau null
+     */
+    public String read(String fileName, LocalDate date) {
+        Path segment = segmentFile(YearMonth.from(date));
+        if (!Files.exists(segment)) return null;
+        try (ZipFile zip = new ZipFile(segment.toFile())) {
+            ZipEntry e = zip.getEntry(fileName);
+            if (e == null) return null;
+            try (InputStream in = zip.getInputStream(e)) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Bulan-bulan yang punya segmen, urut dari yang tertua
+     */
+    public List<YearMonth> listSegments() {
+        List<YearMonth> months = new ArrayList<>();
+        String[] names = dir.toFile().list();
+        if (names == null) return months;
+        for (String name : names) {
+            if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) continue;
+            try {
+                months.add(YearMonth.parse(name.substring(SEGMENT_PREFIX.length(),
+                                                          name.length() - SEGMENT_SUFFIX.length())));
+            } catch (Exception e) {
+                // Skip unknown file
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    public long segmentBytes(YearMonth month) {
+        try {
+            return Files.size(segmentFile(month));
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public boolean delete(YearMonth month) {
+        try {
+            return Files.deleteIfExists(segmentFile(month));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path segmentFile(YearMonth month) {
+        return dir.resolve(SEGMENT_PREFIX + month + SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,276 @@
+package jwsp.api;
+
+import jwsp.config.UserPreferences;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Merapikan folder cache/prayer di latar agar tidak tumbuh tanpa batas:
+ * <ol>
+ *   <li>hari yang lebih tua dari {@link UserPreferences#getCacheRetentionDays()} dibuang, baik dari
+ *       store biner (dipadatkan ulang) maupun file JSON/arsip;</li>
+ *   <li>file JSON per hari yang sudah lewat ARCHIVE_AFTER_DAYS dipadatkan ke segmen arsip bulanan
+ *       ({@link CacheArchive}); file .meta hari yang sudah lewat dihapus;</li>
+ *   <li>jika total masih melebihi {@link UserPreferences#getCacheMaxMegabytes()}, segmen arsip
+ *       tertua dihapus, lalu hari-hari tertua di store, tanpa pernah menyentuh hari ini ke depan.</li>
+ * </ol>
+ */
+public class CacheJanitor {
+
+    private static final long INITIAL_DELAY_MS = 2 * 60_000;
+    private static final long INTERVAL_MS = 6 * 60 * 60 * 1000L;
+    private static final int ARCHIVE_AFTER_DAYS = 2;
+    // Sisa file sementara dari penulisan yang terputus
+    private static final long STALE_TMP_MS = 60 * 60 * 1000L;
+
+    /**
+     * Ringkasan isi cache
+     */
+    public static class Stats {
+        public final int entries;
+        public final long bytes;
+        public final LocalDate oldest;
+        public final LocalDate newest;
+        public final int archiveSegments;
+        // Langkah yang gagal pada putaran terakhir (kosong jika semua berhasil)
+        public final List<String> problems;
+
+        Stats(int entries, long bytes, LocalDate oldest, LocalDate newest, int archiveSegments,
+              List<String> problems) {
+            this.entries = entries;
+            this.bytes = bytes;
+            this.oldest = oldest;
+            this.newest = newest;
+            this.archiveSegments = archiveSegments;
+            this.problems = Collections.unmodifiableList(new ArrayList<>(problems));
+        }
+
+        public boolean isOk() {
+            return problems.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats{entries=%d, bytes=%d, oldest=%s, newest=%s, archiveSegments=%d%s}",
+                entries, bytes, oldest, newest, archiveSegments, isOk() ? "" : ", problems=" + problems);
+        }
+    }
+
+    private final OfflineCacheService offline;
+    private final UserPreferences prefs;
+    private final Path dir = Paths.get(OfflineCacheService.CACHE_DIR);
+    private ScheduledExecutorService executor;
+    private final List<String> problems = new ArrayList<>();
+
+    public CacheJanitor() {
+        this(OfflineCacheService.getInstance(), UserPreferences.getInstance());
+    }
+
+    public CacheJanitor(OfflineCacheService offline, UserPreferences prefs) {
+        this.offline = offline;
+        this.prefs = prefs;
+    }
+
+    public synchronized void start() {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwsp-cache-janitor");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                Stats stats = run();
+                if (stats.isOk()) {
+                    System.out.println("[Cache] " + stats);
+                } else {
+                    System.err.println("[Cache] Janitor tidak tuntas: " + stats);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("[Cache] Janitor gagal: " + e);
+            }
+        }, INITIAL_DELAY_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Satu putaran pembersihan
+     * @return statistik setelah dibersihkan
+     */
+    public synchronized Stats run() {
+        problems.clear();
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.minusDays(Math.max(0, prefs.getCacheRetentionDays()));
+        // Pastikan antrian write-behind sudah di disk sebelum file-file disusun ulang
+        offline.flush();
+
+        cleanLooseFiles(today, cutoff);
+        CacheArchive archive = offline.getArchive();
+        for (YearMonth month : archive.listSegments()) {
+            if (month.atEndOfMonth().isBefore(cutoff)) archive.delete(month);
+        }
+        compactStore(cutoff.toEpochDay());
+        enforceBudget(today);
+        return getStats();
+    }
+
+    public synchronized Stats getStats() {
+        List<OfflineCacheService.Entry> entries = offline.listEntries();
+        LocalDate oldest = null;
+        LocalDate newest = null;
+        for (OfflineCacheService.Entry e : entries) {
+            if (oldest == null || e.date.isBefore(oldest)) oldest = e.date;
+            if (newest == null || e.date.isAfter(newest)) newest = e.date;
+        }
+        return new Stats(entries.size(), directoryBytes(), oldest, newest,
+                         offline.getArchive().listSegments().size(), problems);
+    }
+
+    /**
+     * Buang/arsipkan file per hari di cache/prayer
+     */
+    private void cleanLooseFiles(LocalDate today, LocalDate cutoff) {
+        String[] names = dir.toFile().list();
+        if (names == null) return;
+
+        LocalDate archiveBefore = today.minusDays(ARCHIVE_AFTER_DAYS);
+        Map<YearMonth, Map<String, String>> toArchive = new HashMap<>();
+        Map<String, Path> archivedFiles = new LinkedHashMap<>();
+        for (String name : names) {
+            Path file = dir.resolve(name);
+            if (name.endsWith(".tmp")) {
+                if (file.toFile().lastModified() < System.currentTimeMillis() - STALE_TMP_MS) delete(file);
+                continue;
+            }
+            if (!name.startsWith(OfflineCacheService.FILE_PREFIX)) continue;
+
+            boolean json = name.endsWith(OfflineCacheService.FILE_SUFFIX);
+            boolean meta = name.endsWith(OfflineCacheService.META_SUFFIX);
+            if (!json && !meta) continue;
+            String suffix = json ? OfflineCacheService.FILE_SUFFIX : OfflineCacheService.META_SUFFIX;
+            String key = name.substring(OfflineCacheService.FILE_PREFIX.length(), name.length() - suffix.length());
+            int sep = key.lastIndexOf('_');
+            LocalDate date;
+            try {
+                date = LocalDate.parse(key.substring(sep + 1));
+            } catch (Exception e) {
+                continue;
+            }
+
+            if (date.isBefore(cutoff) || (meta && date.isBefore(archiveBefore))) {
+                // Validator HTTP hari yang sudah lewat tidak akan dipakai lagi
+                delete(file);
+            } else if (json && date.isBefore(archiveBefore)) {
+                // Pastikan jadwalnya sudah ada di store biner sebelum file dipindahkan
+                offline.loadSchedule(key.substring(0, sep), date);
+                try {
+                    String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+                    toArchive.computeIfAbsent(YearMonth.from(date), m -> new LinkedHashMap<>()).put(name, content);
+                    archivedFiles.put(name, file);
+                } catch (IOException e) {
+                    // Coba lagi di putaran berikutnya
+                }
+            }
+        }
+
+        offline.flush();
+        for (Map.Entry<YearMonth, Map<String, String>> e : toArchive.entrySet()) {
+            try {
+                offline.getArchive().add(e.getKey(), e.getValue());
+            } catch (IOException ex) {
+                problems.add("arsip " + e.getKey() + ": " + ex.getMessage());
+                continue;
+            }
+            for (String name : e.getValue().keySet()) {
+                delete(archivedFiles.get(name));
+            }
+        }
+    }
+
+    /**
+     * @return false jika store tidak bisa dipadatkan (file lama tetap dipakai)
+     */
+    private boolean compactStore(long minEpochDay) {
+        BinaryScheduleStore store = offline.getStore();
+        if (store == null) return true;
+        try {
+            int removed = store.compact(minEpochDay);
+            if (removed > 0) System.out.println("[Cache] Store dipadatkan, " + removed + " record dibuang");
+            return true;
+        } catch (IOException e) {
+            problems.add("compact store: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void enforceBudget(LocalDate today) {
+        long budget = Math.max(1, prefs.getCacheMaxMegabytes()) * 1024L * 1024L;
+        long excess = directoryBytes() - budget;
+        if (excess <= 0) return;
+
+        CacheArchive archive = offline.getArchive();
+        for (YearMonth month : archive.listSegments()) {
+            if (excess <= 0) return;
+            long size = archive.segmentBytes(month);
+            if (archive.delete(month)) excess -= size;
+        }
+
+        BinaryScheduleStore store = offline.getStore();
+        if (excess <= 0 || store == null) return;
+        // Buang hari tertua secukupnya, hari ini ke depan tidak pernah dibuang
+        NavigableMap<Long, Integer> days = store.dayHistogram();
+        long minEpochDay = -1;
+        for (Map.Entry<Long, Integer> e : days.entrySet()) {
+            if (excess <= 0 || e.getKey() >= today.toEpochDay()) break;
+            excess -= (long) e.getValue() * BinaryScheduleStore.RECORD_SIZE;
+            minEpochDay = e.getKey() + 1;
+        }
+        if (minEpochDay >= 0 && !compactStore(minEpochDay)) return;
+
+        long total = directoryBytes();
+        if (total > budget) {
+            problems.add("ukuran " + total + " byte masih melebihi batas " + budget + " byte");
+        }
+    }
+
+    private long directoryBytes() {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.map(Path::toFile).filter(File::isFile).mapToLong(File::length).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Coba lagi di putaran berikutnya
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package jwsp.api;
+
+import jwsp.data.wilayah.Wilayah;
+import jwsp.data.wilayah.WilayahData;
+import jwsp.domain.prayer.CalibrationTable;
+import jwsp.domain.prayer.JadwalSholat;
+import jwsp.domain.prayer.ObserverLocation;
+import jwsp.domain.prayer.PrayerSchedule;
+import jwsp.domain.prayer.PrayerTimeCalculator;
+import jwsp.domain.prayer.SolarEphemerisCache;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mempelajari koreksi per kota per waktu dari jadwal API yang tersimpan di OfflineCacheService,
+ * relatif terhadap perhitungan manual JadwalSholat, lalu menyimpannya ke CalibrationTable.
+ *
+ * Koreksi = median(selisih API - manual) + 30 detik, sehingga hasil manual yang dibulatkan
+ * ke bawah per menit jatuh pada menit yang sama dengan API.
+ */
+public class CalibrationJob {
+
+    private static final int MIN_SAMPLES = 3;
+    private static final int MINUTE_CENTER_SECONDS = 30;
+    // Selisih di atas ini dianggap data tidak cocok (mis. tanggal/metode lain), bukan bias
+    private static final int MAX_RESIDUAL_SECONDS = 30 * 60;
+    private static final int SECONDS_PER_DAY = 86400;
+
+    public static class Result {
+        public final int entries;
+        public final int calibratedCities;
+
+        public Result(int entries, int calibratedCities) {
+            this.entries = entries;
+            this.calibratedCities = calibratedCities;
+        }
+
+        @Override
+        public String toString() {
+            return "CalibrationJob.Result{entries=" + entries + ", calibratedCities=" + calibratedCities + '}';
+        }
+    }
+
+    private final OfflineCacheService cacheService;
+
+    public CalibrationJob() {
+        this(OfflineCacheService.getInstance());
+    }
+
+    public CalibrationJob(OfflineCacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    public Result run() {
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(JadwalSholat.METODE_MANUAL);
+        SolarEphemerisCache ephemeris = SolarEphemerisCache.getShared();
+        int[] manual = new int[PrayerTimeCalculator.TIMES_PER_DAY];
+        Map<String, List<List<Integer>>> residuals = new HashMap<>();
+        Map<String, ObserverLocation> locations = new HashMap<>();
+        int entries = 0;
+
+        for (OfflineCacheService.Entry entry : cacheService.listEntries()) {
+            Wilayah w = WilayahData.getInstance().getById(entry.cityId);
+            if (w == null) continue;
+
+            PrayerSchedule schedule = cacheService.loadSchedule(entry.cityId, entry.date);
+            if (schedule == null) continue;
+
+            ObserverLocation location = locations.computeIfAbsent(entry.cityId, id -> new ObserverLocation(
+                w.getLatitude(), w.getLongitude(), PrayerTimeCalculator.utcOffsetHours(w.getZonaWaktu())));
+            calculator.compute(ephemeris, entry.date.toEpochDay(), location, manual, 0);
+
+            List<List<Integer>> perSlot = residuals.computeIfAbsent(entry.cityId, id -> newSlotLists());
+            for (int k = 0; k < PrayerTimeCalculator.TIMES_PER_DAY; k++) {
+                LocalTime api = schedule.getTime(PrayerTimeCalculator.SLOT_KEYS[k]);
+                if (api == null) continue;
+                int diff = Math.floorMod(api.toSecondOfDay() - manual[k] + SECONDS_PER_DAY / 2, SECONDS_PER_DAY)
+                           - SECONDS_PER_DAY / 2;
+                if (Math.abs(diff) <= MAX_RESIDUAL_SECONDS) {
+                    perSlot.get(k).add(diff);
+                }
+            }
+            entries++;
+        }
+
+        Map<String, short[]> table = new HashMap<>();
+        for (Map.Entry<String, List<List<Integer>>> e : residuals.entrySet()) {
+            short[] corr = new short[PrayerTimeCalculator.TIMES_PER_DAY];
+            boolean enough = true;
+            for (int k = 0; k < corr.length; k++) {
+                List<Integer> samples = e.getValue().get(k);
+                if (samples.size() < MIN_SAMPLES) {
+                    enough = false;
+                    break;
+                }
+                corr[k] = (short) (median(samples) + MINUTE_CENTER_SECONDS);
+            }
+            if (enough) table.put(e.getKey(), corr);
+        }
+
+        CalibrationTable.getInstance().replace(table);
+        return new Result(entries, table.size());
+    }
+
+    private static List<List<Integer>> newSlotLists() {
+        List<List<Integer>> lists = new ArrayList<>(PrayerTimeCalculator.TIMES_PER_DAY);
+        for (int k = 0; k < PrayerTimeCalculator.TIMES_PER_DAY; k++) {
+            lists.add(new ArrayList<>());
+        }
+        return lists;
+    }
+
+    private static int median(List<Integer> values) {
+        List<Integer> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
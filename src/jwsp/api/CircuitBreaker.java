@@ -0,0 +1,201 @@
+package jwsp.api;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Circuit breaker sederhana untuk satu host API.
+ *
+ * CLOSED: semua request jalan; hasil N request terakhir dicatat (gagal = error/status 5xx atau
+ * lebih lambat dari slowCallMillis). Jika minimal MIN_CALLS tercatat dan rasio gagal ≥ failureRate,
+ * breaker OPEN. OPEN: request langsung ditolak selama openMillis. Setelah itu HALF_OPEN: satu request
+ * uji dilepas; berhasil -> CLOSED (riwayat direset), gagal -> OPEN lagi.
+ *
+ * Setiap izin dari {@link #acquire()} membawa generasi state saat itu, dan generasi naik pada setiap
+ * perpindahan state. Hasil request dari generasi lama (mis. request lambat yang dilepas saat CLOSED
+ * lalu selesai saat HALF_OPEN) diabaikan, sehingga di HALF_OPEN hanya hasil request uji yang dihitung.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public interface StateListener {
+        void onStateChanged(CircuitBreaker breaker, State state);
+    }
+
+    /**
+     * Hasil {@link #acquire()} jika request ditolak
+     */
+    public static final long REJECTED = -1;
+
+    private static final int MIN_CALLS = 5;
+
+    private final String name;
+    private final double failureRate;
+    private final long slowCallMillis;
+    private final long openMillis;
+
+    // Ring buffer hasil request terakhir (true = gagal)
+    private final boolean[] window;
+    private int windowCount;
+    private int windowPos;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private boolean probeInFlight;
+    private final List<StateListener> listeners = new CopyOnWriteArrayList<>();
+
+    public CircuitBreaker(String name) {
+        this(name, 20, 0.5, 3000, 30_000);
+    }
+
+    public CircuitBreaker(String name, int windowSize, double failureRate, long slowCallMillis, long openMillis) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.failureRate = failureRate;
+        this.slowCallMillis = slowCallMillis;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * @return izin untuk onSuccess/onFailure/release jika request boleh dijalankan, atau {@link #REJECTED}
+     */
+    public long acquire() {
+        State changed;
+        long permit;
+        synchronized (this) {
+            changed = checkOpenTimeout();
+            if (state == State.CLOSED) {
+                permit = generation;
+            } else if (state == State.HALF_OPEN && !probeInFlight) {
+                probeInFlight = true;
+                permit = generation;
+            } else {
+                permit = REJECTED;
+            }
+        }
+        fire(changed);
+        return permit;
+    }
+
+    /**
+     * Request selesai dengan respons dari server; dihitung gagal jika lebih lambat dari ambang
+     * @param permit hasil {@link #acquire()} untuk request ini
+     */
+    public void onSuccess(long permit, long latencyMillis) {
+        record(permit, latencyMillis > slowCallMillis);
+    }
+
+    public void onFailure(long permit) {
+        record(permit, true);
+    }
+
+    /**
+     * Request batal karena sebab lokal (mis. thread di-interrupt): tidak dihitung sebagai hasil,
+     * tetapi jika ini request uji HALF_OPEN, request uji berikutnya boleh dilepas
+     */
+    public synchronized void release(long permit) {
+        if (permit == generation && state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    private void record(long permit, boolean failed) {
+        State changed = null;
+        synchronized (this) {
+            if (permit != generation) {
+                // Dilepas pada state sebelumnya; tidak mewakili kondisi host saat ini
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                probeInFlight = false;
+                if (failed) {
+                    open();
+                } else {
+                    transition(State.CLOSED);
+                    resetWindow();
+                }
+                changed = state;
+            } else if (state == State.CLOSED) {
+                if (windowCount == window.length) {
+                    if (window[windowPos]) failures--;
+                } else {
+                    windowCount++;
+                }
+                window[windowPos] = failed;
+                if (failed) failures++;
+                windowPos = (windowPos + 1) % window.length;
+
+                if (windowCount >= MIN_CALLS && failures >= failureRate * windowCount) {
+                    open();
+                    changed = state;
+                }
+            }
+        }
+        fire(changed);
+    }
+
+    /**
+     * OPEN yang sudah melewati openMillis menjadi HALF_OPEN (dipanggil di dalam lock)
+     * @return state baru jika berubah, atau null
+     */
+    private State checkOpenTimeout() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            transition(State.HALF_OPEN);
+            probeInFlight = false;
+            return state;
+        }
+        return null;
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = System.currentTimeMillis();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowCount = 0;
+        windowPos = 0;
+        failures = 0;
+    }
+
+    private void fire(State changed) {
+        if (changed == null) return;
+        for (StateListener listener : listeners) {
+            listener.onStateChanged(this, changed);
+        }
+    }
+
+    public State getState() {
+        State changed;
+        State current;
+        synchronized (this) {
+            changed = checkOpenTimeout();
+            current = state;
+        }
+        fire(changed);
+        return current;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void addListener(StateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(StateListener listener) {
+        listeners.remove(listener);
+    }
+}
@@ -1,21 +1,71 @@
 package jwsp.api;
 
+import jwsp.api.provider.HedgedScheduleResolver;
+import jwsp.api.provider.OfflineCacheProvider;
+import jwsp.api.provider.ScheduleProvider;
 import jwsp.domain.prayer.PrayerSchedule;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.HashMap;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class JadwalSholatService {
 
+    // Jadwal dari memori/disk diperiksa ulang ke API paling sering sekali per interval ini
+    private static final long REVALIDATE_INTERVAL_MS = 60 * 60 * 1000L;
+    // Key yang baru gagal diambil tidak dicoba lagi ke API selama ini (negative cache)
+    private static final long NEGATIVE_TTL_MS = 60 * 1000L;
+    // Cukup untuk beberapa kota x beberapa minggu; sisanya dibaca lagi dari disk
+    private static final int CACHE_MAX_ENTRIES = 512;
+    private static final long CACHE_TTL_MS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * Dipanggil saat revalidasi menemukan waktu yang berbeda dari cache. Selalu dari thread
+     * listener service (bukan thread HttpClient, bukan EDT); listener UI wajib pindah ke EDT sendiri.
+     */
+    public interface ScheduleListener {
+        void onScheduleChanged(PrayerSchedule schedule);
+    }
+
     private static JadwalSholatService instance;
     private final ApiService apiService;
-    private PrayerSchedule currentSchedule;
-    private final Map<String, PrayerSchedule> cache = new HashMap<>();
+    private final ScheduleCache cache;
+    // Disk lalu API: cache offline selalu dicoba lebih dulu, API hanya saat disk tidak punya jawaban
+    private final ScheduleProvider diskProvider;
+    private final HedgedScheduleResolver resolver;
+    // Snapshot terbaru per (cityId, date); dibaca tanpa lock oleh controller/thread mana pun
+    private final Map<String, AtomicReference<PrayerSchedule>> snapshots = new ConcurrentHashMap<>();
+    // Request yang sedang berjalan per (cityId, date); pemanggil bersamaan berbagi future yang sama
+    private final Map<String, CompletableFuture<PrayerSchedule>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastValidated = new ConcurrentHashMap<>();
+    private final Map<String, Long> failedUntil = new ConcurrentHashMap<>();
+    private final List<ScheduleListener> listeners = new CopyOnWriteArrayList<>();
+    // Satu thread: listener tidak menahan thread HttpClient dan perubahan diterima berurutan
+    private final ExecutorService listenerExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "jwsp-schedule-listeners");
+        t.setDaemon(true);
+        return t;
+    });
 
     private JadwalSholatService() {
         this.apiService = new ApiService();
+        this.cache = new ScheduleCache(CACHE_MAX_ENTRIES, CACHE_TTL_MS, this::evicted);
+        this.diskProvider = new OfflineCacheProvider(OfflineCacheService.getInstance());
+        this.resolver = new HedgedScheduleResolver(Arrays.asList(diskProvider, new ApiProvider()));
+        // Koneksi pulih: kegagalan lama tidak lagi relevan
+        ApiService.getScheduleBreaker().addListener((breaker, state) -> {
+            if (state == CircuitBreaker.State.CLOSED) failedUntil.clear();
+        });
     }
 
     public static synchronized JadwalSholatService getInstance() {
@@ -25,36 +75,245 @@ public class JadwalSholatService {
         return instance;
     }
 
+    public void addListener(ScheduleListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ScheduleListener listener) {
+        listeners.remove(listener);
+    }
+
     public PrayerSchedule getSchedule(String cityId, LocalDate date) {
-        String key = cityId + "_" + date.toString();
-        
-        // 1. Try API Layer
-        String json = apiService.fetchRawJson(cityId, date.toString());
-        if (json != null) {
-            OfflineCacheService.getInstance().save(cityId, date, json);
-            PrayerSchedule ps = apiService.parsePrayerSchedule(cityId, date.toString(), json);
-            if (ps != null) {
-                cache.put(key, ps);
-                currentSchedule = ps;
-                return ps;
+        return getScheduleAsync(cityId, date).join();
+    }
+
+    /**
+     * Urutan: memori, lalu resolver (disk/OfflineCacheService, lalu API). Data cache langsung
+     * dikembalikan dan diperiksa ulang ke API di latar; listener hanya dipanggil jika waktunya berubah.
+     * Selesai dengan null jika semua layer gagal (layer manual ditangani JadwalSholat).
+     */
+    public CompletableFuture<PrayerSchedule> getScheduleAsync(String cityId, LocalDate date) {
+        String key = key(cityId, date);
+
+        // 1. Memory Layer
+        PrayerSchedule ps = cache.get(key);
+        if (ps != null) {
+            publish(key, ps);
+            revalidate(key, cityId, date);
+            return CompletableFuture.completedFuture(ps);
+        }
+
+        // 2. Disk Layer, 3. API Layer
+        return resolver.resolve(cityId, date).thenApply(result -> {
+            if (result == null) return null;
+            if (result.provider == diskProvider) {
+                PrayerSchedule cached = snapshot(result.schedule);
+                cache.put(key, cached);
+                publish(key, cached);
+                revalidate(key, cityId, date);
+                return cached;
             }
+            // Jawaban API sudah disimpan oleh storeFetched
+            return result.schedule;
+        });
+    }
+
+    /**
+     * Snapshot jadwal terakhir yang diketahui untuk (cityId, date), tanpa I/O dan tanpa lock.
+     * Objek yang dikembalikan immutable. Null jika belum pernah dimuat lewat service ini.
+     */
+    public PrayerSchedule getSnapshot(String cityId, LocalDate date) {
+        AtomicReference<PrayerSchedule> ref = snapshots.get(key(cityId, date));
+        return ref != null ? ref.get() : null;
+    }
+
+    /**
+     * Pastikan jadwal ada di cache tanpa memicu revalidasi. Selesai dengan true jika sudah/berhasil
+     * di-cache, false jika gagal diambil.
+     */
+    public CompletableFuture<Boolean> prefetch(String cityId, LocalDate date) {
+        String key = key(cityId, date);
+        if (cache.containsKey(key) || OfflineCacheService.getInstance().contains(cityId, date)) {
+            return CompletableFuture.completedFuture(true);
         }
+        return fetch(key, cityId, date).thenApply(ps -> ps != null);
+    }
+
+    private PrayerSchedule loadFromDisk(String cityId, LocalDate date) {
+        return OfflineCacheService.getInstance().loadSchedule(cityId, date);
+    }
 
-        // 2. Try Cache Layer
-        json = OfflineCacheService.getInstance().load(cityId, date);
-        if (json != null) {
-            PrayerSchedule ps = apiService.parsePrayerSchedule(cityId, date.toString(), json);
-            if (ps != null) {
-                cache.put(key, ps);
-                currentSchedule = ps;
-                return ps;
+    private void revalidate(String key, String cityId, LocalDate date) {
+        Long last = lastValidated.get(key);
+        if (last != null && System.currentTimeMillis() - last < REVALIDATE_INTERVAL_MS) return;
+        lastValidated.put(key, System.currentTimeMillis());
+        fetch(key, cityId, date);
+    }
+
+    /**
+     * Satu request API per key pada satu waktu. Selama request untuk key yang sama
+     * masih berjalan, pemanggil lain menerima future yang sama.
+     */
+    private CompletableFuture<PrayerSchedule> fetch(String key, String cityId, LocalDate date) {
+        Long until = failedUntil.get(key);
+        if (until != null) {
+            if (System.currentTimeMillis() < until) {
+                return CompletableFuture.completedFuture(null);
             }
+            failedUntil.remove(key, until);
+        }
+
+        CompletableFuture<PrayerSchedule> future = new CompletableFuture<>();
+        CompletableFuture<PrayerSchedule> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
         }
 
-        return null; // Layer 3 (Manual) will be handled by JadwalSholat
+        // Revalidasi jadwal yang sudah ada di cache memakai request bersyarat
+        OfflineCacheService offline = OfflineCacheService.getInstance();
+        ResponseMetadata validators = cache.containsKey(key)
+            ? offline.loadMetadata(cityId, date)
+            : ResponseMetadata.EMPTY;
+
+        future.whenComplete((ps, e) -> inFlight.remove(key, future));
+        apiService.fetchRawJsonConditionalAsync(cityId, date.toString(), validators)
+            .thenApply(result -> storeFetched(key, cityId, date, result))
+            .whenComplete((ps, e) -> {
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(ps);
+                }
+            });
+        return future;
     }
 
-    public PrayerSchedule getCurrentSchedule() {
-        return currentSchedule;
+    private PrayerSchedule storeFetched(String key, String cityId, LocalDate date, ApiService.FetchResult result) {
+        if (result != null && result.notModified) {
+            // 304: jadwal di cache masih berlaku, tidak ada body untuk di-parse
+            PrayerSchedule cached = cache.peek(key);
+            if (cached == null) cached = loadFromDisk(cityId, date);
+            if (cached != null) {
+                lastValidated.put(key, System.currentTimeMillis());
+                publish(key, cached);
+                return cached;
+            }
+            result = null;
+        }
+
+        PrayerSchedule ps = result != null
+            ? snapshot(apiService.parsePrayerSchedule(cityId, date.toString(), result.body))
+            : null;
+        if (ps == null) {
+            failedUntil.put(key, System.currentTimeMillis() + NEGATIVE_TTL_MS);
+            // Hari ini jatuh ke perhitungan manual; coba lagi nanti agar cache resmi terisi
+            RetryQueue.getInstance().enqueue(cityId, date);
+            return null;
+        }
+
+        lastValidated.put(key, System.currentTimeMillis());
+        OfflineCacheService offline = OfflineCacheService.getInstance();
+        if (store(key, ps)) {
+            offline.save(ps, result.body);
+        }
+        offline.saveMetadata(cityId, date, result.metadata);
+        return ps;
+    }
+
+    /**
+     * Simpan ke memori; beri tahu listener jika menggantikan jadwal dengan waktu berbeda.
+     * @return true jika jadwal baru atau berubah
+     */
+    private boolean store(String key, PrayerSchedule ps) {
+        cache.put(key, ps);
+        PrayerSchedule previous = publish(key, ps);
+        if (previous == null) {
+            // Bisa jadi sudah ada di disk tetapi belum dimuat; tetap tulis agar disk terbaru
+            return true;
+        }
+        if (previous.hasSameTimes(ps)) {
+            return false;
+        }
+        for (ScheduleListener listener : listeners) {
+            listenerExecutor.execute(() -> {
+                try {
+                    listener.onScheduleChanged(ps);
+                } catch (RuntimeException e) {
+                    System.err.println("[Jadwal] Listener gagal: " + e);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Terbitkan snapshot untuk key ini
+     * @return snapshot sebelumnya, atau null
+     */
+    private PrayerSchedule publish(String key, PrayerSchedule ps) {
+        return snapshots.computeIfAbsent(key, k -> new AtomicReference<>()).getAndSet(ps);
+    }
+
+    private void evicted(String key) {
+        lastValidated.remove(key);
+        snapshots.remove(key);
+    }
+
+    private static PrayerSchedule snapshot(PrayerSchedule ps) {
+        return ps != null ? ps.snapshot() : null;
+    }
+
+    private static String key(String cityId, Object date) {
+        return cityId + "_" + date;
+    }
+
+    /**
+     * Ambil jadwal satu bulan untuk satu kota dengan satu request, simpan semua hari ke cache offline.
+     * @return jumlah hari yang berhasil disimpan (0 jika gagal)
+     */
+    public int prefetchMonth(String cityId, YearMonth month) {
+        Map<LocalDate, String> days = apiService.splitMonthlyJson(apiService.fetchMonthlyRawJson(cityId, month));
+        if (days.isEmpty()) return 0;
+
+        List<PrayerSchedule> parsed = new ArrayList<>();
+        for (Map.Entry<LocalDate, String> e : days.entrySet()) {
+            PrayerSchedule ps = snapshot(apiService.parsePrayerSchedule(cityId, e.getKey().toString(), e.getValue()));
+            if (ps != null) parsed.add(ps);
+        }
+        OfflineCacheService.getInstance().saveAll(parsed, days);
+
+        long now = System.currentTimeMillis();
+        for (PrayerSchedule ps : parsed) {
+            String key = key(cityId, ps.getDate());
+            // Sebelum store: getScheduleAsync yang membaca key ini tidak memicu revalidasi ulang
+            lastValidated.put(key, now);
+            store(key, ps);
+        }
+        return parsed.size();
+    }
+
+    public ScheduleCache getCache() {
+        return cache;
+    }
+
+    public HedgedScheduleResolver getResolver() {
+        return resolver;
+    }
+
+    /**
+     * Layer API untuk resolver: request bersyarat, satu request per key, negative cache dan
+     * RetryQueue, dan hasilnya disimpan ke memori/disk sebelum future selesai
+     */
+    private class ApiProvider implements ScheduleProvider {
+
+        @Override
+        public String getName() {
+            return "myquran(" + apiService.getJadwalBaseUrl() + ")";
+        }
+
+        @Override
+        public CompletableFuture<PrayerSchedule> fetch(String cityId, LocalDate date) {
+            return JadwalSholatService.this.fetch(key(cityId, date), cityId, date);
+        }
     }
 }
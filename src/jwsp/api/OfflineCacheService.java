@@ -1,13 +1,94 @@
 package jwsp.api;
 
+import jwsp.domain.prayer.PrayerSchedule;
+
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
+/**
+ * Cache jadwal resmi di disk. Jadwal disimpan di {@link BinaryScheduleStore}
+ * (cache/prayer/schedules.bin). JSON mentah per hari (prayer_{kota}_{tanggal}.json) hanya
+ * ditulis jika -Djwsp.cache.json=true, untuk debugging; file JSON lama tetap dibaca dan
+ * dipindahkan ke store biner saat pertama kali dimuat.
+ *
+ * Penulisan bersifat write-behind: save/saveMetadata hanya memasukkan data ke antrian di memori
+ * (key yang sama digabung, yang terbaru menang) dan langsung kembali. Satu thread latar menulis
+ * antrian per batch setelah BATCH_DELAY_MS; file JSON/.meta ditulis ke file sementara lalu
+ * di-rename atomik. Data yang masih di antrian tetap terbaca lewat load/contains.
+ * Panggil {@link #flush()} sebelum aplikasi keluar.
+ */
 public class OfflineCacheService {
 
     private static OfflineCacheService instance;
-    private static final String CACHE_DIR = "cache/prayer";
+    static final String CACHE_DIR = "cache/prayer";
+    static final String FILE_PREFIX = "prayer_";
+    static final String FILE_SUFFIX = ".json";
+    // File pendamping berisi validator HTTP (ETag / Last-Modified) untuk request bersyarat
+    static final String META_SUFFIX = ".meta";
+    private static final String STORE_FILE = "schedules.bin";
+    private static final boolean WRITE_JSON = Boolean.getBoolean("jwsp.cache.json");
+    // Tunggu sebentar agar penulisan berurutan (mis. prefetch) masuk satu batch
+    private static final long BATCH_DELAY_MS = 500;
+    private static final long FLUSH_TIMEOUT_MS = 10_000;
+    // Batch yang gagal ditulis ke store dicoba lagi setelah jeda ini
+    private static final long RETRY_DELAY_MS = 30_000;
+
+    public static class Entry {
+        public final String cityId;
+        public final LocalDate date;
+
+        public Entry(String cityId, LocalDate date) {
+            this.cityId = cityId;
+            this.date = date;
+        }
+    }
+
+    /**
+     * Data satu (kota, hari) yang belum ditulis; field null = tidak ada perubahan
+     */
+    private static class PendingWrite {
+        final String cityId;
+        final LocalDate date;
+        PrayerSchedule schedule;
+        String json;
+        ResponseMetadata metadata;
+
+        PendingWrite(String cityId, LocalDate date) {
+            this.cityId = cityId;
+            this.date = date;
+        }
+    }
+
+    // null jika store tidak bisa dibuka; cache jatuh ke file JSON
+    private final BinaryScheduleStore store;
+    private final ApiService parser = new ApiService();
+    // JSON per hari yang sudah dipadatkan CacheJanitor
+    private final CacheArchive archive = new CacheArchive(Paths.get(CACHE_DIR, "archive"));
+
+    // Antrian yang belum diambil writer, dan batch yang sedang ditulis (keduanya dijaga oleh pending)
+    private final Map<String, PendingWrite> pending = new LinkedHashMap<>();
+    private Map<String, PendingWrite> writing = new LinkedHashMap<>();
+    private boolean drainScheduled;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "jwsp-cache-writer");
+        t.setDaemon(true);
+        return t;
+    });
 
     private OfflineCacheService() {
         try {
@@ -15,6 +96,13 @@ public class OfflineCacheService {
         } catch (IOException e) {
             // Error creating cache folder
         }
+        BinaryScheduleStore opened = null;
+        try {
+            opened = new BinaryScheduleStore(Paths.get(CACHE_DIR, STORE_FILE));
+        } catch (IOException e) {
+            System.err.println("[Cache] Store biner tidak bisa dibuka, memakai JSON: " + e.getMessage());
+        }
+        this.store = opened;
     }
 
     public static synchronized OfflineCacheService getInstance() {
@@ -24,20 +112,194 @@ public class OfflineCacheService {
         return instance;
     }
 
-    public void save(String cityId, LocalDate date, String json) {
-        if (json == null || json.isEmpty()) return;
-        
-        File file = getCacheFile(cityId, date);
-        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
-            out.print(json);
+    /**
+     * Simpan jadwal hasil parse; json (boleh null) hanya ditulis jika mode debug JSON aktif
+     */
+    public void save(PrayerSchedule schedule, String json) {
+        synchronized (pending) {
+            enqueue(schedule, json);
+        }
+    }
+
+    /**
+     * Simpan banyak hari sekaligus (mis. hasil fetch bulanan); ditulis dalam satu batch
+     * @param jsonByDate respons mentah per hari untuk mode debug JSON, boleh kosong
+     */
+    public void saveAll(List<PrayerSchedule> schedules, Map<LocalDate, String> jsonByDate) {
+        synchronized (pending) {
+            for (PrayerSchedule ps : schedules) {
+                enqueue(ps, jsonByDate.get(LocalDate.parse(ps.getDate())));
+            }
+        }
+    }
+
+    private void enqueue(PrayerSchedule schedule, String json) {
+        PendingWrite w = pendingFor(schedule.getCityId(), LocalDate.parse(schedule.getDate()));
+        w.schedule = schedule.snapshot();
+        if ((store == null || WRITE_JSON) && json != null && !json.isEmpty()) {
+            w.json = json;
+        }
+    }
+
+    /**
+     * Entri antrian untuk key ini (dibuat jika belum ada); pemanggil memegang lock pending
+     */
+    private PendingWrite pendingFor(String cityId, LocalDate date) {
+        PendingWrite w = pending.computeIfAbsent(key(cityId, date), k -> new PendingWrite(cityId, date));
+        if (!drainScheduled) {
+            drainScheduled = true;
+            writer.schedule(this::drain, BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+        return w;
+    }
+
+    /**
+     * Nilai terbaru yang belum sampai ke disk untuk key ini, atau null
+     */
+    private <T> T findPending(String cityId, LocalDate date, Function<PendingWrite, T> field) {
+        String key = key(cityId, date);
+        synchronized (pending) {
+            PendingWrite w = pending.get(key);
+            T value = w != null ? field.apply(w) : null;
+            if (value != null) return value;
+            w = writing.get(key);
+            return w != null ? field.apply(w) : null;
+        }
+    }
+
+    /**
+     * Tulis semua yang ada di antrian (di thread writer)
+     * @return false jika store gagal ditulis (batch dikembalikan ke antrian)
+     */
+    private boolean drain() {
+        synchronized (pending) {
+            drainScheduled = false;
+            if (pending.isEmpty()) return true;
+            writing = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+
+        List<PrayerSchedule> schedules = new ArrayList<>();
+        for (PendingWrite w : writing.values()) {
+            if (w.schedule != null) schedules.add(w.schedule);
+            if (w.json != null) writeJson(w.cityId, w.date, w.json);
+            if (w.metadata != null) writeMetadata(w.cityId, w.date, w.metadata);
+        }
+        boolean saved = true;
+        if (store != null && !schedules.isEmpty()) {
+            try {
+                saveToStore(schedules);
+            } catch (IOException | RuntimeException e) {
+                saved = false;
+                System.err.println("[Cache] Gagal menulis " + schedules.size() + " jadwal, dicoba lagi: " + e);
+            }
+        }
+
+        synchronized (pending) {
+            if (!saved) requeue(schedules);
+            writing = new LinkedHashMap<>();
+        }
+        return saved;
+    }
+
+    private void saveToStore(List<PrayerSchedule> schedules) throws IOException {
+        try {
+            store.saveAll(schedules);
+        } catch (IllegalArgumentException e) {
+            // Ada tanggal di luar jangkauan store: tidak akan pernah berhasil, simpan sisanya satu per satu
+            for (PrayerSchedule ps : schedules) {
+                try {
+                    store.save(ps);
+                } catch (IllegalArgumentException skipped) {
+                    System.err.println("[Cache] Jadwal dibuang: " + skipped.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Kembalikan batch yang gagal ke antrian, kecuali key yang sudah punya jadwal lebih baru;
+     * dicoba lagi setelah RETRY_DELAY_MS. Pemanggil memegang lock pending.
+     */
+    private void requeue(List<PrayerSchedule> schedules) {
+        for (PrayerSchedule ps : schedules) {
+            LocalDate date = LocalDate.parse(ps.getDate());
+            PendingWrite w = pending.computeIfAbsent(key(ps.getCityId(), date),
+                                                     k -> new PendingWrite(ps.getCityId(), date));
+            if (w.schedule == null) w.schedule = ps;
+        }
+        if (!drainScheduled) {
+            drainScheduled = true;
+            writer.schedule(this::drain, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Tulis semua yang masih di antrian dan tunggu sampai selesai (mis. saat aplikasi ditutup)
+     */
+    public void flush() {
+        try {
+            if (!writer.submit(this::drain).get(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                int left;
+                synchronized (pending) {
+                    left = pending.size();
+                }
+                System.err.println("[Cache] Flush tidak tuntas, " + left + " entri belum tersimpan");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("[Cache] Flush gagal: " + e);
+        }
+    }
+
+    private static String key(String cityId, LocalDate date) {
+        return cityId + "_" + date;
+    }
+
+    /**
+     * Jadwal tersimpan sebagai snapshot immutable, atau null
+     */
+    public PrayerSchedule loadSchedule(String cityId, LocalDate date) {
+        PrayerSchedule queued = findPending(cityId, date, w -> w.schedule);
+        if (queued != null) return queued;
+        if (store != null) {
+            PrayerSchedule ps = store.load(cityId, date);
+            if (ps != null) return ps;
+        }
+
+        // File JSON lama/debug
+        String json = loadJson(cityId, date);
+        PrayerSchedule ps = json != null ? parser.parsePrayerSchedule(cityId, date.toString(), json) : null;
+        if (ps == null) return null;
+        ps = ps.snapshot();
+        if (store != null) {
+            save(ps, null);
+        }
+        return ps;
+    }
+
+    private void writeJson(String cityId, LocalDate date, String json) {
+        try {
+            writeAtomically(getCacheFile(cityId, date).toPath(), json.getBytes(StandardCharsets.UTF_8));
         } catch (IOException e) {
             // Save failed
         }
     }
 
-    public String load(String cityId, LocalDate date) {
+    public boolean contains(String cityId, LocalDate date) {
+        if (findPending(cityId, date, w -> w.schedule) != null) return true;
+        return (store != null && store.contains(cityId, date)) || getCacheFile(cityId, date).exists();
+    }
+
+    /**
+     * Respons API mentah (hanya ada untuk cache lama atau mode debug JSON)
+     */
+    public String loadJson(String cityId, LocalDate date) {
+        String queued = findPending(cityId, date, w -> w.json);
+        if (queued != null) return queued;
         File file = getCacheFile(cityId, date);
-        if (!file.exists()) return null;
+        if (!file.exists()) return archive.read(file.getName(), date);
 
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             StringBuilder sb = new StringBuilder();
@@ -51,8 +313,110 @@ public class OfflineCacheService {
         }
     }
 
+    public void saveMetadata(String cityId, LocalDate date, ResponseMetadata metadata) {
+        synchronized (pending) {
+            pendingFor(cityId, date).metadata = metadata;
+        }
+    }
+
+    private void writeMetadata(String cityId, LocalDate date, ResponseMetadata metadata) {
+        File file = getMetadataFile(cityId, date);
+        if (metadata.isEmpty()) {
+            file.delete();
+            return;
+        }
+
+        Properties props = new Properties();
+        if (metadata.etag != null) props.setProperty("etag", metadata.etag);
+        if (metadata.lastModified != null) props.setProperty("last-modified", metadata.lastModified);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            props.store(out, null);
+            writeAtomically(file.toPath(), out.toByteArray());
+        } catch (IOException e) {
+            // Save failed
+        }
+    }
+
+    /**
+     * Tulis ke file sementara lalu rename, agar pembaca tidak pernah melihat file setengah jadi
+     */
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.wrap(content));
+            out.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Validator respons yang tersimpan, atau {@link ResponseMetadata#EMPTY}
+     */
+    public ResponseMetadata loadMetadata(String cityId, LocalDate date) {
+        ResponseMetadata queued = findPending(cityId, date, w -> w.metadata);
+        if (queued != null) return queued;
+        File file = getMetadataFile(cityId, date);
+        if (!file.exists()) return ResponseMetadata.EMPTY;
+
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            return ResponseMetadata.EMPTY;
+        }
+        return new ResponseMetadata(props.getProperty("etag"), props.getProperty("last-modified"));
+    }
+
+    /**
+     * Daftar semua jadwal yang tersimpan di cache
+     */
+    public List<Entry> listEntries() {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        if (store != null) {
+            for (Entry e : store.listEntries()) {
+                entries.put(key(e.cityId, e.date), e);
+            }
+        }
+        synchronized (pending) {
+            for (Map<String, PendingWrite> queue : List.of(writing, pending)) {
+                for (PendingWrite w : queue.values()) {
+                    if (w.schedule != null) entries.putIfAbsent(key(w.cityId, w.date), new Entry(w.cityId, w.date));
+                }
+            }
+        }
+        String[] names = new File(CACHE_DIR).list();
+        if (names == null) return new ArrayList<>(entries.values());
+
+        for (String name : names) {
+            if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) continue;
+            String key = name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length());
+            int sep = key.lastIndexOf('_');
+            if (sep <= 0) continue;
+            try {
+                entries.putIfAbsent(key, new Entry(key.substring(0, sep), LocalDate.parse(key.substring(sep + 1))));
+            } catch (Exception e) {
+                // Skip unknown file
+            }
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    BinaryScheduleStore getStore() {
+        return store;
+    }
+
+    CacheArchive getArchive() {
+        return archive;
+    }
+
     private File getCacheFile(String cityId, LocalDate date) {
-        String fileName = String.format("prayer_%s_%s.json", cityId, date.toString());
+        String fileName = FILE_PREFIX + cityId + "_" + date + FILE_SUFFIX;
         return new File(CACHE_DIR, fileName);
     }
+
+    private File getMetadataFile(String cityId, LocalDate date) {
+        return new File(CACHE_DIR, FILE_PREFIX + cityId + "_" + date + META_SUFFIX);
+    }
 }
@@ -0,0 +1,151 @@
+package jwsp.api;
+
+import jwsp.config.UserPreferences;
+import jwsp.data.wilayah.Wilayah;
+import jwsp.data.wilayah.WilayahData;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Menjaga N hari ke depan ({@link UserPreferences#getPrefetchDays()}) tetap ada di cache untuk
+ * kota aktif dan kota favorit, agar pergantian hari dan pindah kota tidak menunggu jaringan.
+ *
+ * Berjalan di satu thread daemon berprioritas rendah. Setiap putaran hanya mengambil hari yang
+ * belum ada di cache, paling banyak MAX_CONCURRENT request sekaligus dengan jeda acak di antaranya.
+ * Putaran yang gagal (atau breaker API sedang OPEN) dijadwalkan ulang dengan backoff eksponensial.
+ */
+public class PrefetchScheduler {
+
+    private static final int MAX_CONCURRENT = 2;
+    private static final long INITIAL_DELAY_MS = 30_000;
+    private static final long INTERVAL_MS = 6 * 60 * 60 * 1000L;
+    private static final long BACKOFF_BASE_MS = 60_000;
+    private static final long BACKOFF_MAX_MS = 60 * 60 * 1000L;
+    private static final long REQUEST_GAP_MIN_MS = 200;
+    private static final long REQUEST_GAP_MAX_MS = 800;
+
+    private final JadwalSholatService service;
+    private final UserPreferences prefs;
+    private final Supplier<String> activeCityId;
+    private final Semaphore permits = new Semaphore(MAX_CONCURRENT);
+    private ScheduledExecutorService executor;
+    private int consecutiveFailures;
+
+    public PrefetchScheduler(Supplier<String> activeCityId) {
+        this(JadwalSholatService.getInstance(), UserPreferences.getInstance(), activeCityId);
+    }
+
+    public PrefetchScheduler(JadwalSholatService service, UserPreferences prefs, Supplier<String> activeCityId) {
+        this.service = service;
+        this.prefs = prefs;
+        this.activeCityId = activeCityId;
+    }
+
+    public synchronized void start() {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwsp-prefetch");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        schedule(withJitter(INITIAL_DELAY_MS));
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private synchronized void schedule(long delayMs) {
+        if (executor != null) {
+            executor.schedule(this::runCycle, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runCycle() {
+        int failed;
+        if (ApiService.getScheduleBreaker().getState() == CircuitBreaker.State.OPEN) {
+            failed = 1;
+        } else {
+            try {
+                failed = prefetchAll();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+
+        if (failed == 0) {
+            consecutiveFailures = 0;
+            schedule(withJitter(INTERVAL_MS));
+        } else {
+            consecutiveFailures++;
+            long backoff = BACKOFF_BASE_MS << Math.min(consecutiveFailures - 1, 10);
+            schedule(withJitter(Math.min(backoff, BACKOFF_MAX_MS)));
+        }
+    }
+
+    /**
+     * @return jumlah hari yang gagal diambil
+     */
+    private int prefetchAll() throws InterruptedException {
+        Set<String> cityIds = new LinkedHashSet<>();
+        String active = activeCityId.get();
+        if (active != null) cityIds.add(active);
+        cityIds.addAll(prefs.getFavoriteCityIds());
+        int days = Math.max(1, prefs.getPrefetchDays());
+
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Boolean>> pending = new ArrayList<>();
+        for (String cityId : cityIds) {
+            Wilayah w = WilayahData.getInstance().getById(cityId);
+            LocalDate today = w != null ? LocalDate.now(w.getZonaWaktu()) : LocalDate.now();
+            for (int d = 0; d < days; d++) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedException();
+                if (ApiService.getScheduleBreaker().getState() == CircuitBreaker.State.OPEN) {
+                    return failed.get() + 1;
+                }
+
+                permits.acquire();
+                CompletableFuture<Boolean> f = service.prefetch(cityId, today.plusDays(d));
+                if (!f.isDone()) {
+                    // Request jaringan sungguhan: beri jeda agar tidak membanjiri server
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(REQUEST_GAP_MIN_MS, REQUEST_GAP_MAX_MS));
+                }
+                f.whenComplete((ok, e) -> {
+                    if (e != null || !Boolean.TRUE.equals(ok)) failed.incrementAndGet();
+                    permits.release();
+                });
+                pending.add(f);
+            }
+        }
+        for (CompletableFuture<Boolean> f : pending) {
+            try {
+                f.join();
+            } catch (Exception e) {
+                // Sudah dihitung gagal
+            }
+        }
+        return failed.get();
+    }
+
+    private static long withJitter(long delayMs) {
+        // ±20% agar banyak instance tidak serentak
+        long spread = delayMs / 5;
+        return delayMs - spread + ThreadLocalRandom.current().nextLong(2 * spread + 1);
+    }
+}
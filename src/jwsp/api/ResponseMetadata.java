@@ -0,0 +1,30 @@
+package jwsp.api;
+
+import java.net.http.HttpResponse;
+
+/**
+ * Validator HTTP (ETag / Last-Modified) dari respons API, disimpan di samping file cache
+ * agar revalidasi bisa memakai request bersyarat (304 Not Modified tanpa body).
+ */
+public class ResponseMetadata {
+
+    public static final ResponseMetadata EMPTY = new ResponseMetadata(null, null);
+
+    public final String etag;
+    public final String lastModified;
+
+    public ResponseMetadata(String etag, String lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    static ResponseMetadata from(HttpResponse<?> response) {
+        return new ResponseMetadata(
+            response.headers().firstValue("ETag").orElse(null),
+            response.headers().firstValue("Last-Modified").orElse(null));
+    }
+
+    public boolean isEmpty() {
+        return etag == null && lastModified == null;
+    }
+}
@@ -0,0 +1,273 @@
+package jwsp.api;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Antrian persisten (cityId, date) yang gagal diambil dari API. Setiap entri dicoba ulang dengan
+ * backoff eksponensial + jitter; hasil yang berhasil masuk ke OfflineCacheService lewat
+ * {@link JadwalSholatService#prefetch}. Antrian langsung diputar ulang saat breaker API
+ * kembali CLOSED. Tanggal yang sudah lewat dibuang.
+ *
+ * Format file: satu entri per baris "cityId,yyyy-MM-dd,attempts,nextAttemptMillis".
+ */
+public class RetryQueue {
+
+    private static final Path QUEUE_FILE = Paths.get("cache", "retry_queue.txt");
+    private static final long CHECK_INTERVAL_MS = 60_000;
+    private static final long BACKOFF_BASE_MS = 2 * 60_000;
+    private static final long BACKOFF_MAX_MS = 6 * 60 * 60 * 1000L;
+
+    private static RetryQueue instance;
+
+    private static class Item {
+        final String cityId;
+        final LocalDate date;
+        int attempts;
+        long nextAttempt;
+
+        Item(String cityId, LocalDate date, int attempts, long nextAttempt) {
+            this.cityId = cityId;
+            this.date = date;
+            this.attempts = attempts;
+            this.nextAttempt = nextAttempt;
+        }
+    }
+
+    /**
+     * Seberapa banyak rentang hari ke depan yang didukung data resmi API
+     */
+    public static class GapReport {
+        public final LocalDate from;
+        public final int days;
+        public final int total;
+        public final int cached;
+        public final int queued;
+        // Tidak di-cache dan tidak sedang diantrikan
+        public final int missing;
+
+        GapReport(LocalDate from, int days, int total, int cached, int queued) {
+            this.from = from;
+            this.days = days;
+            this.total = total;
+            this.cached = cached;
+            this.queued = queued;
+            this.missing = total - cached - queued;
+        }
+
+        public double getCoverage() {
+            return total == 0 ? 1.0 : (double) cached / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("GapReport{from=%s, days=%d, cached=%d/%d (%.1f%%), queued=%d, missing=%d}",
+                from, days, cached, total, getCoverage() * 100, queued, missing);
+        }
+    }
+
+    private final Map<String, Item> items = new LinkedHashMap<>();
+    private final CircuitBreaker.StateListener breakerListener = (breaker, state) -> {
+        if (state == CircuitBreaker.State.CLOSED) replayAll();
+    };
+    private ScheduledExecutorService executor;
+
+    private RetryQueue() {
+        load();
+    }
+
+    public static synchronized RetryQueue getInstance() {
+        if (instance == null) {
+            instance = new RetryQueue();
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwsp-retry");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::replayDue, CHECK_INTERVAL_MS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        ApiService.getScheduleBreaker().addListener(breakerListener);
+    }
+
+    public synchronized void stop() {
+        ApiService.getScheduleBreaker().removeListener(breakerListener);
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Catat hari yang gagal diambil (tidak berpengaruh jika sudah ada di antrian)
+     */
+    public void enqueue(String cityId, LocalDate date) {
+        if (date.isBefore(LocalDate.now().minusDays(1))) return;
+        synchronized (this) {
+            if (items.containsKey(key(cityId, date))) return;
+            items.put(key(cityId, date), new Item(cityId, date, 0, System.currentTimeMillis() + backoff(0)));
+            // Dipanggil dari thread jaringan: tulis file di thread antrian jika sedang berjalan
+            if (executor != null) {
+                executor.execute(this::saveNow);
+            } else {
+                save();
+            }
+        }
+    }
+
+    private synchronized void saveNow() {
+        save();
+    }
+
+    public synchronized int size() {
+        return items.size();
+    }
+
+    public synchronized boolean contains(String cityId, LocalDate date) {
+        return items.containsKey(key(cityId, date));
+    }
+
+    /**
+     * Coba entri yang sudah jatuh tempo
+     */
+    public void replayDue() {
+        replay(false);
+    }
+
+    /**
+     * Coba semua entri sekarang (mis. koneksi baru pulih)
+     */
+    public void replayAll() {
+        ScheduledExecutorService ex;
+        synchronized (this) {
+            ex = executor;
+        }
+        if (ex != null) {
+            ex.execute(() -> replay(true));
+        }
+    }
+
+    private void replay(boolean all) {
+        List<Item> due = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        LocalDate oldest = LocalDate.now().minusDays(1);
+        synchronized (this) {
+            boolean dropped = items.values().removeIf(item -> item.date.isBefore(oldest));
+            for (Item item : items.values()) {
+                if (all || item.nextAttempt <= now) due.add(item);
+            }
+            if (dropped) save();
+        }
+        if (due.isEmpty()) return;
+
+        JadwalSholatService service = JadwalSholatService.getInstance();
+        for (Item item : due) {
+            if (Thread.currentThread().isInterrupted()) return;
+            if (ApiService.getScheduleBreaker().getState() == CircuitBreaker.State.OPEN) break;
+
+            boolean ok;
+            try {
+                ok = service.prefetch(item.cityId, item.date).join();
+            } catch (Exception e) {
+                ok = false;
+            }
+            synchronized (this) {
+                if (ok) {
+                    items.remove(key(item.cityId, item.date));
+                } else {
+                    item.attempts++;
+                    item.nextAttempt = System.currentTimeMillis() + backoff(item.attempts);
+                }
+            }
+        }
+        synchronized (this) {
+            save();
+        }
+    }
+
+    /**
+     * Laporan cakupan cache resmi untuk kota-kota tertentu mulai dari tanggal tertentu
+     */
+    public GapReport gapReport(List<String> cityIds, LocalDate from, int days) {
+        OfflineCacheService offline = OfflineCacheService.getInstance();
+        int cached = 0;
+        int queued = 0;
+        for (String cityId : cityIds) {
+            for (int d = 0; d < days; d++) {
+                LocalDate date = from.plusDays(d);
+                if (offline.contains(cityId, date)) {
+                    cached++;
+                } else if (contains(cityId, date)) {
+                    queued++;
+                }
+            }
+        }
+        return new GapReport(from, days, cityIds.size() * days, cached, queued);
+    }
+
+    private static long backoff(int attempts) {
+        long base = Math.min(BACKOFF_BASE_MS << Math.min(attempts, 12), BACKOFF_MAX_MS);
+        // Jitter penuh di separuh atas agar entri tidak dicoba serentak
+        return base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+    }
+
+    private static String key(String cityId, LocalDate date) {
+        return cityId + "_" + date;
+    }
+
+    private void load() {
+        if (!Files.exists(QUEUE_FILE)) return;
+        try (BufferedReader in = Files.newBufferedReader(QUEUE_FILE, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length != 4) continue;
+                try {
+                    Item item = new Item(parts[0], LocalDate.parse(parts[1]),
+                                         Integer.parseInt(parts[2]), Long.parseLong(parts[3]));
+                    items.put(key(item.cityId, item.date), item);
+                } catch (Exception e) {
+                    // Skip broken line
+                }
+            }
+        } catch (IOException e) {
+            // Start with empty queue
+        }
+    }
+
+    private void save() {
+        try {
+            Files.createDirectories(QUEUE_FILE.getParent());
+            Path tmp = QUEUE_FILE.resolveSibling(QUEUE_FILE.getFileName() + ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Item item : items.values()) {
+                    out.write(item.cityId + "," + item.date + "," + item.attempts + "," + item.nextAttempt);
+                    out.newLine();
+                }
+            }
+            Files.move(tmp, QUEUE_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Save failed, queue stays in memory
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package jwsp.api;
+
+import jwsp.domain.prayer.PrayerSchedule;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Cache memori jadwal yang dibatasi: paling banyak maxEntries entri (LRU) dan setiap entri
+ * kedaluwarsa ttlMillis setelah disimpan. Entri yang kedaluwarsa tidak dikembalikan;
+ * pemanggil jatuh ke layer berikutnya (disk/API). Aman dipakai dari banyak thread.
+ */
+public class ScheduleCache {
+
+    private static class Entry {
+        final PrayerSchedule schedule;
+        final long storedAt;
+
+        Entry(PrayerSchedule schedule, long storedAt) {
+            this.schedule = schedule;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Consumer<String> evictionListener;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ScheduleCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, key -> { });
+    }
+
+    /**
+     * @param evictionListener dipanggil dengan key yang dibuang karena penuh atau kedaluwarsa
+     */
+    public ScheduleCache(int maxEntries, long ttlMillis, Consumer<String> evictionListener) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Dihitung sebagai hit/miss
+     */
+    public PrayerSchedule get(String key) {
+        return lookup(key, true);
+    }
+
+    /**
+     * Seperti get, tetapi tidak mengubah statistik
+     */
+    public PrayerSchedule peek(String key) {
+        return lookup(key, false);
+    }
+
+    public boolean containsKey(String key) {
+        return peek(key) != null;
+    }
+
+    /**
+     * @return jadwal sebelumnya yang masih berlaku, atau null
+     */
+    public PrayerSchedule put(String key, PrayerSchedule schedule) {
+        long now = System.currentTimeMillis();
+        PrayerSchedule previous = null;
+        String evicted = null;
+        synchronized (this) {
+            Entry old = entries.put(key, new Entry(schedule, now));
+            if (old != null && !isExpired(old, now)) {
+                previous = old.schedule;
+            }
+            if (entries.size() > maxEntries) {
+                Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+                evicted = it.next().getKey();
+                it.remove();
+                evictions++;
+            }
+        }
+        if (evicted != null) evictionListener.accept(evicted);
+        return previous;
+    }
+
+    /**
+     * Buang semua entri yang sudah kedaluwarsa
+     * @return jumlah entri yang dibuang
+     */
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        List<String> removed = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Entry> e = it.next();
+                if (isExpired(e.getValue(), now)) {
+                    removed.add(e.getKey());
+                    it.remove();
+                }
+            }
+            evictions += removed.size();
+        }
+        removed.forEach(evictionListener);
+        return removed.size();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ScheduleCache{size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%}",
+            entries.size(), maxEntries, hits, misses, evictions, getHitRate() * 100);
+    }
+
+    private PrayerSchedule lookup(String key, boolean count) {
+        long now = System.currentTimeMillis();
+        boolean expired = false;
+        PrayerSchedule result = null;
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null && isExpired(e, now)) {
+                entries.remove(key);
+                evictions++;
+                expired = true;
+            } else if (e != null) {
+                result = e.schedule;
+            }
+            if (count) {
+                if (result != null) hits++;
+                else misses++;
+            }
+        }
+        if (expired) evictionListener.accept(key);
+        return result;
+    }
+
+    private boolean isExpired(Entry e, long now) {
+        return now - e.storedAt >= ttlMillis;
+    }
+}
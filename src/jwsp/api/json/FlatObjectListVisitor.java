@@ -0,0 +1,96 @@
+package jwsp.api.json;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mengumpulkan setiap object "daun" (tanpa object/array di dalamnya) sebagai Map key -> nilai teks,
+ * sesuai urutan kemunculan. Cocok untuk daftar provinsi/kota baik berupa array langsung
+ * ([{...}, {...}]) maupun dibungkus ({"data": [...]}). Angka dan boolean disimpan sebagai teks,
+ * null dilewati.
+ */
+public class FlatObjectListVisitor implements JsonVisitor {
+
+    private final List<Map<String, String>> result = new ArrayList<>();
+
+    // Object yang sedang dibaca per kedalaman (null untuk array)
+    private final List<Map<String, String>> stack = new ArrayList<>();
+    private final List<Boolean> leaf = new ArrayList<>();
+    private String pendingKey;
+
+    public List<Map<String, String>> getResult() {
+        return result;
+    }
+
+    @Override
+    public void startObject() {
+        push(new HashMap<>());
+    }
+
+    @Override
+    public void endObject() {
+        int top = stack.size() - 1;
+        Map<String, String> map = stack.remove(top);
+        if (leaf.remove(top)) {
+            result.add(map);
+        }
+        pendingKey = null;
+    }
+
+    @Override
+    public void startArray() {
+        push(null);
+    }
+
+    @Override
+    public void endArray() {
+        int top = stack.size() - 1;
+        stack.remove(top);
+        leaf.remove(top);
+        pendingKey = null;
+    }
+
+    @Override
+    public void key(CharSequence text, int start, int end) {
+        pendingKey = text.subSequence(start, end).toString();
+    }
+
+    @Override
+    public void stringValue(CharSequence text, int start, int end) {
+        put(text.subSequence(start, end).toString());
+    }
+
+    @Override
+    public void numberValue(CharSequence text, int start, int end) {
+        put(text.subSequence(start, end).toString());
+    }
+
+    @Override
+    public void booleanValue(boolean value) {
+        put(Boolean.toString(value));
+    }
+
+    @Override
+    public void nullValue() {
+        pendingKey = null;
+    }
+
+    private void push(Map<String, String> container) {
+        if (!leaf.isEmpty()) {
+            leaf.set(leaf.size() - 1, false);
+        }
+        stack.add(container);
+        leaf.add(container != null);
+    }
+
+    private void put(String value) {
+        if (stack.isEmpty() || pendingKey == null) return;
+        Map<String, String> top = stack.get(stack.size() - 1);
+        if (top != null) {
+            top.put(pendingKey, value);
+        }
+        pendingKey = null;
+    }
+}
@@ -0,0 +1,261 @@
+package jwsp.api.json;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tokenizer JSON satu lintasan tanpa dependensi. Input dibaca sekali dari kiri ke kanan dan setiap
+ * token langsung dikirim ke {@link JsonVisitor}; string tanpa escape dikirim sebagai rentang di atas
+ * input asli (tanpa substring), string dengan escape didekode ke satu buffer yang dipakai ulang.
+ *
+ * Input tidak valid menghasilkan IllegalArgumentException dengan posisi karakter, termasuk
+ * object/array yang bersarang lebih dalam dari {@link #MAX_DEPTH} (parser ini rekursif).
+ */
+public final class JsonTokenizer {
+
+    // Respons API paling dalam 4 tingkat; batas ini jauh di bawah kedalaman yang menghabiskan stack
+    public static final int MAX_DEPTH = 64;
+
+    private final CharSequence in;
+    private final int length;
+    private final StringBuilder scratch = new StringBuilder();
+    private int pos;
+    private int depth;
+
+    public JsonTokenizer(CharSequence in) {
+        this.in = in;
+        this.length = in.length();
+    }
+
+    /**
+     * Input UTF-8 (mis. body HTTP); posisi buffer tidak diubah
+     */
+    public JsonTokenizer(ByteBuffer utf8) {
+        this(StandardCharsets.UTF_8.decode(utf8.duplicate()));
+    }
+
+    /**
+     * Posisi karakter berikutnya. Saat startObject/startArray dipanggil, karakter pembuka ada di
+     * position() - 1; saat endObject/endArray dipanggil, position() tepat setelah karakter penutup.
+     */
+    public int position() {
+        return pos;
+    }
+
+    public CharSequence source() {
+        return in;
+    }
+
+    public void parse(JsonVisitor visitor) {
+        pos = 0;
+        depth = 0;
+        skipWhitespace();
+        parseValue(visitor);
+        skipWhitespace();
+        if (pos != length) throw error("Karakter sisa setelah nilai JSON");
+    }
+
+    private void parseValue(JsonVisitor v) {
+        switch (peek()) {
+            case '{':
+                enter();
+                parseObject(v);
+                depth--;
+                break;
+            case '[':
+                enter();
+                parseArray(v);
+                depth--;
+                break;
+            case '"':
+                parseString(v, false);
+                break;
+            case 't':
+                literal("true");
+                v.booleanValue(true);
+                break;
+            case 'f':
+                literal("false");
+                v.booleanValue(false);
+                break;
+            case 'n':
+                literal("null");
+                v.nullValue();
+                break;
+            default:
+                parseNumber(v);
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) throw error("JSON bersarang lebih dari " + MAX_DEPTH + " tingkat");
+    }
+
+    private void parseObject(JsonVisitor v) {
+        pos++;
+        v.startObject();
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            v.endObject();
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') throw error("Key object harus string");
+            parseString(v, true);
+            skipWhitespace();
+            if (next() != ':') throw error("Diharapkan ':'");
+            skipWhitespace();
+            parseValue(v);
+            skipWhitespace();
+            char c = next();
+            if (c == '}') {
+                v.endObject();
+                return;
+            }
+            if (c != ',') throw error("Diharapkan ',' atau '}'");
+        }
+    }
+
+    private void parseArray(JsonVisitor v) {
+        pos++;
+        v.startArray();
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            v.endArray();
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            parseValue(v);
+            skipWhitespace();
+            char c = next();
+            if (c == ']') {
+                v.endArray();
+                return;
+            }
+            if (c != ',') throw error("Diharapkan ',' atau ']'");
+        }
+    }
+
+    private void parseString(JsonVisitor v, boolean key) {
+        int start = ++pos;
+        while (pos < length) {
+            char c = in.charAt(pos);
+            if (c == '"') {
+                pos++;
+                emitString(v, key, in, start, pos - 1);
+                return;
+            }
+            if (c == '\\') {
+                parseEscapedString(v, key, start);
+                return;
+            }
+            pos++;
+        }
+        throw error("String tidak ditutup");
+    }
+
+    private void parseEscapedString(JsonVisitor v, boolean key, int start) {
+        scratch.setLength(0);
+        scratch.append(in, start, pos);
+        while (pos < length) {
+            char c = in.charAt(pos++);
+            if (c == '"') {
+                emitString(v, key, scratch, 0, scratch.length());
+                return;
+            }
+            if (c != '\\') {
+                scratch.append(c);
+                continue;
+            }
+            char e = next();
+            switch (e) {
+                case 'n': scratch.append('\n'); break;
+                case 't': scratch.append('\t'); break;
+                case 'r': scratch.append('\r'); break;
+                case 'b': scratch.append('\b'); break;
+                case 'f': scratch.append('\f'); break;
+                case 'u': scratch.append(unicodeEscape()); break;
+                default: scratch.append(e);
+            }
+        }
+        throw error("String tidak ditutup");
+    }
+
+    private char unicodeEscape() {
+        if (pos + 4 > length) throw error("Escape unicode terpotong");
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            int d = Character.digit(in.charAt(pos++), 16);
+            if (d < 0) throw error("Escape unicode tidak valid");
+            code = code * 16 + d;
+        }
+        return (char) code;
+    }
+
+    private static void emitString(JsonVisitor v, boolean key, CharSequence text, int start, int end) {
+        if (key) {
+            v.key(text, start, end);
+        } else {
+            v.stringValue(text, start, end);
+        }
+    }
+
+    private void parseNumber(JsonVisitor v) {
+        int start = pos;
+        while (pos < length) {
+            char c = in.charAt(pos);
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+        if (pos == start) throw error("Nilai tidak dikenal");
+        v.numberValue(in, start, pos);
+    }
+
+    private void literal(String word) {
+        if (!regionEquals(in, pos, Math.min(pos + word.length(), length), word)) {
+            throw error("Diharapkan " + word);
+        }
+        pos += word.length();
+    }
+
+    private void skipWhitespace() {
+        while (pos < length) {
+            char c = in.charAt(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+            pos++;
+        }
+    }
+
+    private char peek() {
+        if (pos >= length) throw error("Input berakhir terlalu cepat");
+        return in.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " (posisi " + pos + ")");
+    }
+
+    /**
+     * Bandingkan rentang [start, end) dengan teks tanpa membuat substring
+     */
+    public static boolean regionEquals(CharSequence text, int start, int end, String expected) {
+        if (end - start != expected.length()) return false;
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(start + i) != expected.charAt(i)) return false;
+        }
+        return true;
+    }
+}
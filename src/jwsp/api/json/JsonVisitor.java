@@ -0,0 +1,26 @@
+package jwsp.api.json;
+
+/**
+ * Callback event dari {@link JsonTokenizer}. Teks dikirim sebagai rentang [start, end) di atas
+ * CharSequence yang hanya valid selama callback berlangsung; salin (toString) bila perlu disimpan.
+ */
+public interface JsonVisitor {
+
+    default void startObject() {}
+
+    default void endObject() {}
+
+    default void startArray() {}
+
+    default void endArray() {}
+
+    default void key(CharSequence text, int start, int end) {}
+
+    default void stringValue(CharSequence text, int start, int end) {}
+
+    default void numberValue(CharSequence text, int start, int end) {}
+
+    default void booleanValue(boolean value) {}
+
+    default void nullValue() {}
+}
@@ -0,0 +1,210 @@
+package jwsp.api.json;
+
+import jwsp.domain.prayer.PrayerSchedule;
+import jwsp.domain.prayer.PrayerTimeCalculator;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mengisi {@link PrayerSchedule} langsung dari event tokenizer untuk respons myquran.
+ * "jadwal" berupa object (endpoint harian) menghasilkan satu hari, berupa array (endpoint bulanan)
+ * menghasilkan satu hari per elemen. Jam "HH:mm" dibaca langsung dari karakter tanpa substring.
+ */
+public class ScheduleVisitor implements JsonVisitor {
+
+    // Key API per slot, urutan sama dengan PrayerTimeCalculator.SLOT_KEYS
+    private static final String[] API_KEYS = {
+        "subuh", "dzuhur", "ashar", "maghrib", "isya", "terbit", "imsak", "dhuha"
+    };
+    private static final int DATE_KEY = -2;
+    private static final int OTHER_KEY = -1;
+
+    public static class Day {
+        public final PrayerSchedule schedule;
+        // Tanggal dari field "date", atau null jika tidak ada
+        public final LocalDate date;
+        // Rentang object hari di input [start, end)
+        public final int start;
+        public final int end;
+
+        Day(PrayerSchedule schedule, LocalDate date, int start, int end) {
+            this.schedule = schedule;
+            this.date = date;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final JsonTokenizer tokenizer;
+    private final String cityId;
+    private final String defaultDate;
+    private final List<Day> days = new ArrayList<>();
+
+    private int depth;
+    private boolean jadwalKey;
+    // Kedalaman object hari dan array "jadwal" (-1 = tidak ada)
+    private int dayDepth = -1;
+    private int arrayDepth = -1;
+    private boolean jadwalDone;
+    private int currentKey = OTHER_KEY;
+    private final LocalTime[] times = new LocalTime[PrayerTimeCalculator.TIMES_PER_DAY];
+    private LocalDate date;
+    private int dayStart;
+
+    /**
+     * @param defaultDate tanggal PrayerSchedule bila hari tidak punya field "date"
+     */
+    public ScheduleVisitor(JsonTokenizer tokenizer, String cityId, String defaultDate) {
+        this.tokenizer = tokenizer;
+        this.cityId = cityId;
+        this.defaultDate = defaultDate;
+    }
+
+    public List<Day> getDays() {
+        return days;
+    }
+
+    @Override
+    public void startObject() {
+        depth++;
+        if (jadwalKey) {
+            jadwalKey = false;
+            dayDepth = depth;
+        }
+        if (depth == dayDepth) {
+            beginDay();
+        }
+    }
+
+    @Override
+    public void endObject() {
+        if (depth == dayDepth) {
+            endDay();
+            if (arrayDepth < 0) {
+                dayDepth = -1;
+                jadwalDone = true;
+            }
+        }
+        depth--;
+    }
+
+    @Override
+    public void startArray() {
+        depth++;
+        if (jadwalKey) {
+            jadwalKey = false;
+            arrayDepth = depth;
+            dayDepth = depth + 1;
+        }
+    }
+
+    @Override
+    public void endArray() {
+        if (depth == arrayDepth) {
+            arrayDepth = -1;
+            dayDepth = -1;
+            jadwalDone = true;
+        }
+        depth--;
+    }
+
+    @Override
+    public void key(CharSequence text, int start, int end) {
+        if (depth == dayDepth) {
+            currentKey = slotOf(text, start, end);
+        } else if (!jadwalDone && dayDepth < 0 && JsonTokenizer.regionEquals(text, start, end, "jadwal")) {
+            jadwalKey = true;
+        } else {
+            jadwalKey = false;
+        }
+    }
+
+    @Override
+    public void stringValue(CharSequence text, int start, int end) {
+        jadwalKey = false;
+        if (depth != dayDepth) return;
+        if (currentKey >= 0) {
+            times[currentKey] = parseHourMinute(text, start, end);
+        } else if (currentKey == DATE_KEY) {
+            date = parseDate(text, start, end);
+        }
+    }
+
+    @Override
+    public void numberValue(CharSequence text, int start, int end) {
+        jadwalKey = false;
+    }
+
+    @Override
+    public void booleanValue(boolean value) {
+        jadwalKey = false;
+    }
+
+    @Override
+    public void nullValue() {
+        jadwalKey = false;
+    }
+
+    private void beginDay() {
+        Arrays.fill(times, null);
+        date = null;
+        currentKey = OTHER_KEY;
+        dayStart = tokenizer.position() - 1;
+    }
+
+    private void endDay() {
+        PrayerSchedule schedule = new PrayerSchedule(cityId, date != null ? date.toString() : defaultDate);
+        for (int k = 0; k < times.length; k++) {
+            if (times[k] != null) {
+                schedule.setTime(PrayerTimeCalculator.SLOT_KEYS[k], times[k]);
+            }
+        }
+        days.add(new Day(schedule, date, dayStart, tokenizer.position()));
+    }
+
+    private static int slotOf(CharSequence text, int start, int end) {
+        for (int k = 0; k < API_KEYS.length; k++) {
+            if (JsonTokenizer.regionEquals(text, start, end, API_KEYS[k])) return k;
+        }
+        return JsonTokenizer.regionEquals(text, start, end, "date") ? DATE_KEY : OTHER_KEY;
+    }
+
+    /**
+     * "HH:mm" -> LocalTime, atau null jika format lain
+     */
+    static LocalTime parseHourMinute(CharSequence text, int start, int end) {
+        if (end - start != 5 || text.charAt(start + 2) != ':') return null;
+        int h = twoDigits(text, start);
+        int m = twoDigits(text, start + 3);
+        if (h < 0 || h > 23 || m < 0 || m > 59) return null;
+        return LocalTime.of(h, m);
+    }
+
+    /**
+     * "yyyy-MM-dd" -> LocalDate, atau null jika format lain
+     */
+    static LocalDate parseDate(CharSequence text, int start, int end) {
+        if (end - start != 10 || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') return null;
+        int y1 = twoDigits(text, start);
+        int y2 = twoDigits(text, start + 2);
+        int mo = twoDigits(text, start + 5);
+        int d = twoDigits(text, start + 8);
+        if (y1 < 0 || y2 < 0 || mo < 1 || mo > 12 || d < 1) return null;
+        try {
+            return LocalDate.of(y1 * 100 + y2, mo, d);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static int twoDigits(CharSequence text, int i) {
+        int a = text.charAt(i) - '0';
+        int b = text.charAt(i + 1) - '0';
+        if (a < 0 || a > 9 || b < 0 || b > 9) return -1;
+        return a * 10 + b;
+    }
+}
@@ -0,0 +1,59 @@
+package jwsp.api.provider;
+
+import jwsp.data.wilayah.Wilayah;
+import jwsp.data.wilayah.WilayahData;
+import jwsp.domain.prayer.CalculationMethod;
+import jwsp.domain.prayer.CalibrationTable;
+import jwsp.domain.prayer.JadwalSholat;
+import jwsp.domain.prayer.ObserverLocation;
+import jwsp.domain.prayer.PrayerSchedule;
+import jwsp.domain.prayer.PrayerTimeCalculator;
+import jwsp.domain.prayer.SolarEphemerisCache;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Perhitungan astronomis lokal (selalu tersedia untuk wilayah yang dikenal), dengan koreksi
+ * CalibrationTable agar sedekat mungkin dengan jadwal resmi
+ */
+public class AstronomicalProvider implements ScheduleProvider {
+
+    private final PrayerTimeCalculator calculator;
+    private final boolean calibrated;
+
+    public AstronomicalProvider() {
+        this(JadwalSholat.METODE_MANUAL, true);
+    }
+
+    public AstronomicalProvider(CalculationMethod method, boolean calibrated) {
+        this.calculator = new PrayerTimeCalculator(method);
+        this.calibrated = calibrated;
+    }
+
+    @Override
+    public String getName() {
+        return "astronomical(" + calculator.getMethod().getName() + ")";
+    }
+
+    @Override
+    public CompletableFuture<PrayerSchedule> fetch(String cityId, LocalDate date) {
+        Wilayah w = WilayahData.getInstance().getById(cityId);
+        if (w == null) return CompletableFuture.completedFuture(null);
+
+        int[] times = new int[PrayerTimeCalculator.TIMES_PER_DAY];
+        ObserverLocation location = new ObserverLocation(w.getLatitude(), w.getLongitude(),
+            PrayerTimeCalculator.utcOffsetHours(w.getZonaWaktu()));
+        calculator.compute(SolarEphemerisCache.getShared(), date.toEpochDay(), location, times, 0);
+        if (calibrated) {
+            CalibrationTable.getInstance().apply(cityId, times, 0);
+        }
+
+        PrayerSchedule ps = new PrayerSchedule(cityId, date.toString());
+        for (int k = 0; k < times.length; k++) {
+            ps.setTime(PrayerTimeCalculator.SLOT_KEYS[k], LocalTime.of(times[k] / 3600, (times[k] / 60) % 60));
+        }
+        return CompletableFuture.completedFuture(ps);
+    }
+}
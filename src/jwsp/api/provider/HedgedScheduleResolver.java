@@ -0,0 +1,170 @@
+package jwsp.api.provider;
+
+import jwsp.domain.prayer.PrayerSchedule;
+import jwsp.domain.prayer.PrayerTimeCalculator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolver jadwal dengan hedged request atas daftar provider berurutan prioritas.
+ *
+ * Provider pertama dijalankan lebih dulu. Jika belum menjawab dalam p95 latensinya sendiri
+ * (histogram per provider; default DEFAULT_HEDGE_DELAY_MS sampai ada MIN_SAMPLES sampel),
+ * provider berikutnya ikut dijalankan, dan seterusnya. Provider yang gagal atau menjawab null
+ * langsung memicu provider berikutnya. Jawaban valid pertama yang menang.
+ */
+public class HedgedScheduleResolver {
+
+    private static final long DEFAULT_HEDGE_DELAY_MS = 800;
+    private static final long MIN_HEDGE_DELAY_MS = 20;
+    private static final int MIN_SAMPLES = 20;
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "jwsp-hedge");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static class Result {
+        public final PrayerSchedule schedule;
+        public final ScheduleProvider provider;
+        public final long latencyMillis;
+
+        Result(PrayerSchedule schedule, ScheduleProvider provider, long latencyMillis) {
+            this.schedule = schedule;
+            this.provider = provider;
+            this.latencyMillis = latencyMillis;
+        }
+    }
+
+    private final List<ScheduleProvider> providers;
+    private final List<LatencyHistogram> histograms = new ArrayList<>();
+
+    public HedgedScheduleResolver(List<ScheduleProvider> providers) {
+        this.providers = Collections.unmodifiableList(new ArrayList<>(providers));
+        for (int i = 0; i < providers.size(); i++) {
+            histograms.add(new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Cache offline, lalu myquran, lalu perhitungan astronomis. Cache lebih dulu karena menjawab
+     * seketika; jika kosong (null) myquran langsung dijalankan tanpa menunggu jeda hedge.
+     */
+    public static HedgedScheduleResolver createDefault() {
+        return new HedgedScheduleResolver(Arrays.asList(
+            new OfflineCacheProvider(), new MyQuranProvider(), new AstronomicalProvider()));
+    }
+
+    public List<ScheduleProvider> getProviders() {
+        return providers;
+    }
+
+    public LatencyHistogram getHistogram(ScheduleProvider provider) {
+        int i = providers.indexOf(provider);
+        return i >= 0 ? histograms.get(i) : null;
+    }
+
+    /**
+     * Jeda sebelum provider setelah index ini ikut dijalankan
+     */
+    public long hedgeDelayMillis(int index) {
+        LatencyHistogram h = histograms.get(index);
+        if (h.count() < MIN_SAMPLES) return DEFAULT_HEDGE_DELAY_MS;
+        return Math.max(MIN_HEDGE_DELAY_MS, h.percentile(0.95));
+    }
+
+    /**
+     * Selesai dengan null jika tidak ada provider yang memberi jadwal lengkap
+     */
+    public CompletableFuture<Result> resolve(String cityId, LocalDate date) {
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        if (providers.isEmpty()) {
+            result.complete(null);
+        } else {
+            new Attempt(cityId, date, result).launch(0);
+        }
+        return result;
+    }
+
+    private class Attempt {
+        private final String cityId;
+        private final LocalDate date;
+        private final CompletableFuture<Result> result;
+        private int launched;
+        private int finished;
+
+        Attempt(String cityId, LocalDate date, CompletableFuture<Result> result) {
+            this.cityId = cityId;
+            this.date = date;
+            this.result = result;
+        }
+
+        /**
+         * Jalankan provider index jika belum pernah dijalankan dan hasil belum ada
+         */
+        void launch(int index) {
+            synchronized (this) {
+                if (result.isDone() || index != launched || index >= providers.size()) return;
+                launched++;
+            }
+
+            ScheduleProvider provider = providers.get(index);
+            long start = System.nanoTime();
+            CompletableFuture<PrayerSchedule> f;
+            try {
+                f = provider.fetch(cityId, date);
+            } catch (RuntimeException e) {
+                f = CompletableFuture.completedFuture(null);
+            }
+            f.whenComplete((ps, e) -> onAnswer(index, ps, e, (System.nanoTime() - start) / 1_000_000));
+
+            if (!f.isDone() && index + 1 < providers.size()) {
+                TIMER.schedule(() -> launch(index + 1), hedgeDelayMillis(index), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void onAnswer(int index, PrayerSchedule ps, Throwable e, long millis) {
+            histograms.get(index).record(millis);
+            if (e == null && isComplete(ps)) {
+                result.complete(new Result(ps, providers.get(index), millis));
+                return;
+            }
+
+            boolean exhausted;
+            synchronized (this) {
+                finished++;
+                exhausted = finished == providers.size();
+            }
+            if (exhausted) {
+                result.complete(null);
+            } else {
+                launchNext();
+            }
+        }
+
+        private void launchNext() {
+            int next;
+            synchronized (this) {
+                next = launched;
+            }
+            launch(next);
+        }
+    }
+
+    private static boolean isComplete(PrayerSchedule ps) {
+        if (ps == null) return false;
+        for (int k = PrayerTimeCalculator.FAJR; k <= PrayerTimeCalculator.ISHA; k++) {
+            if (ps.getTime(PrayerTimeCalculator.SLOT_KEYS[k]) == null) return false;
+        }
+        return true;
+    }
+}
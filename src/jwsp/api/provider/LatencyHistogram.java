@@ -0,0 +1,80 @@
+package jwsp.api.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram latensi (milidetik) dengan bucket geometris ×1.25 dari 1 ms sampai ±60 detik.
+ * Lock-free; persentil dilaporkan sebagai batas atas bucket (galat relatif ≤ 25%).
+ */
+public class LatencyHistogram {
+
+    private static final double GROWTH = 1.25;
+    private static final long[] UPPER_BOUNDS;
+
+    static {
+        List<Long> bounds = new ArrayList<>();
+        double b = 1;
+        while (b < 60_000) {
+            bounds.add((long) Math.ceil(b));
+            b *= GROWTH;
+        }
+        bounds.add(Long.MAX_VALUE);
+        UPPER_BOUNDS = new long[bounds.size()];
+        for (int i = 0; i < UPPER_BOUNDS.length; i++) {
+            UPPER_BOUNDS[i] = bounds.get(i);
+        }
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(UPPER_BOUNDS.length);
+
+    public void record(long millis) {
+        counts.incrementAndGet(bucketOf(Math.max(0, millis)));
+    }
+
+    public long count() {
+        long n = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            n += counts.get(i);
+        }
+        return n;
+    }
+
+    /**
+     * Latensi pada persentil q (0..1), atau -1 jika belum ada sampel
+     */
+    public long percentile(double q) {
+        long total = count();
+        if (total == 0) return -1;
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return UPPER_BOUNDS[i] == Long.MAX_VALUE ? UPPER_BOUNDS[i - 1] : UPPER_BOUNDS[i];
+            }
+        }
+        return UPPER_BOUNDS[UPPER_BOUNDS.length - 2];
+    }
+
+    private static int bucketOf(long millis) {
+        int lo = 0;
+        int hi = UPPER_BOUNDS.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (UPPER_BOUNDS[mid] >= millis) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{n=" + count() + ", p50=" + percentile(0.5) + "ms, p95=" + percentile(0.95)
+            + "ms, p99=" + percentile(0.99) + "ms}";
+    }
+}
@@ -0,0 +1,33 @@
+package jwsp.api.provider;
+
+import jwsp.api.ApiService;
+import jwsp.domain.prayer.PrayerSchedule;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Jadwal resmi dari API myquran (atau server lain dengan format endpoint yang sama)
+ */
+public class MyQuranProvider implements ScheduleProvider {
+
+    private final ApiService apiService;
+
+    public MyQuranProvider() {
+        this(new ApiService());
+    }
+
+    public MyQuranProvider(ApiService apiService) {
+        this.apiService = apiService;
+    }
+
+    @Override
+    public String getName() {
+        return "myquran(" + apiService.getJadwalBaseUrl() + ")";
+    }
+
+    @Override
+    public CompletableFuture<PrayerSchedule> fetch(String cityId, LocalDate date) {
+        return apiService.fetchPrayerScheduleAsync(cityId, date.toString());
+    }
+}
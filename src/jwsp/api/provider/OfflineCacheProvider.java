@@ -0,0 +1,33 @@
+package jwsp.api.provider;
+
+import jwsp.api.OfflineCacheService;
+import jwsp.domain.prayer.PrayerSchedule;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Respons API yang tersimpan di OfflineCacheService
+ */
+public class OfflineCacheProvider implements ScheduleProvider {
+
+    private final OfflineCacheService cacheService;
+
+    public OfflineCacheProvider() {
+        this(OfflineCacheService.getInstance());
+    }
+
+    public OfflineCacheProvider(OfflineCacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @Override
+    public String getName() {
+        return "offline-cache";
+    }
+
+    @Override
+    public CompletableFuture<PrayerSchedule> fetch(String cityId, LocalDate date) {
+        return CompletableFuture.completedFuture(cacheService.loadSchedule(cityId, date));
+    }
+}
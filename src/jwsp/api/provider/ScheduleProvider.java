@@ -0,0 +1,17 @@
+package jwsp.api.provider;
+
+import jwsp.domain.prayer.PrayerSchedule;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sumber jadwal sholat untuk satu kota dan tanggal.
+ * Future selesai dengan null jika sumber tidak punya jawaban (bukan exception).
+ */
+public interface ScheduleProvider {
+
+    String getName();
+
+    CompletableFuture<PrayerSchedule> fetch(String cityId, LocalDate date);
+}
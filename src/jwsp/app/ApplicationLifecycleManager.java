@@ -1,7 +1,14 @@
 package jwsp.app;
 
+import jwsp.api.CacheJanitor;
+import jwsp.api.CalibrationJob;
+import jwsp.api.JadwalSholatService;
+import jwsp.api.OfflineCacheService;
+import jwsp.api.PrefetchScheduler;
+import jwsp.api.RetryQueue;
 import jwsp.domain.prayer.PrayerTimeController;
 import jwsp.domain.prayer.JadwalSholat;
+import jwsp.domain.prayer.PrayerSchedule;
 import jwsp.domain.hijri.HijriService;
 import jwsp.domain.ramadan.RamadanService;
 import jwsp.data.wilayah.Wilayah;
@@ -20,6 +27,7 @@ import java.awt.*;
 import java.time.LocalTime;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.Timer;
 
 public class ApplicationLifecycleManager implements TrayHandler.TrayCallback {
@@ -36,7 +44,12 @@ public class ApplicationLifecycleManager implements TrayHandler.TrayCallback {
     private TrayHandler trayHandler;
     
     private Timer updateTimer;
+    private PrefetchScheduler prefetchScheduler;
+    private CacheJanitor cacheJanitor;
+    private Timer cachePurgeTimer;
     private static final int UPDATE_INTERVAL = 1000;
+    // Entri cache memori yang kedaluwarsa dibuang berkala, tidak hanya saat key-nya dibaca lagi
+    private static final long CACHE_PURGE_INTERVAL = 15 * 60 * 1000L;
 
     private String lastProcessedMinute = "";
 
@@ -86,10 +99,29 @@ public class ApplicationLifecycleManager implements TrayHandler.TrayCallback {
         
         startUpdateTimer();
 
+        // Revalidasi latar menemukan jadwal API yang berubah -> muat ulang jadwal aktif
+        JadwalSholatService.getInstance().addListener(this::onScheduleChanged);
+
+        // Hari-hari berikutnya untuk kota aktif dan favorit diambil di latar
+        prefetchScheduler = new PrefetchScheduler(() -> {
+            Wilayah active = controller.getJadwalSholat().getWilayah();
+            return active != null ? active.getId() : null;
+        });
+        prefetchScheduler.start();
+        RetryQueue.getInstance().start();
+        // Retensi dan batas ukuran cache/prayer
+        cacheJanitor = new CacheJanitor();
+        cacheJanitor.start();
+        startCachePurgeTimer();
+
         final Wilayah finalW = w;
         new Thread(() -> {
             try {
                 JadwalSholat apiJadwal = new JadwalSholat(finalW);
+                // Perbarui koreksi perhitungan manual dari jadwal API yang sudah tersimpan
+                new CalibrationJob().run();
+                System.out.println("[Cache] " + RetryQueue.getInstance().gapReport(
+                    Collections.singletonList(finalW.getId()), LocalDate.now(finalW.getZonaWaktu()), 30));
                 SwingUtilities.invokeLater(() -> {
                     controller.setJadwalSholat(apiJadwal);
                     controller.setJadwalPuasa(new JadwalPuasa(apiJadwal));
@@ -100,11 +132,41 @@ public class ApplicationLifecycleManager implements TrayHandler.TrayCallback {
         }).start();
     }
     
+    /**
+     * Thread listener JadwalSholatService: jadwal baru disusun di sini, controller/UI hanya diubah di EDT
+     */
+    private void onScheduleChanged(PrayerSchedule schedule) {
+        Wilayah w = controller.getJadwalSholat().getWilayah();
+        if (w == null || !w.getId().equals(schedule.getCityId())) return;
+        if (!LocalDate.now(w.getZonaWaktu()).toString().equals(schedule.getDate())) return;
+
+        JadwalSholat updated = new JadwalSholat(w);
+        SwingUtilities.invokeLater(() -> {
+            // Kota bisa sudah diganti selama jadwal disusun
+            Wilayah active = controller.getJadwalSholat().getWilayah();
+            if (active == null || !active.getId().equals(schedule.getCityId())) return;
+            controller.setJadwalSholat(updated);
+            controller.setJadwalPuasa(new JadwalPuasa(updated));
+            lastProcessedMinute = "";
+            if (mainFrame != null) mainFrame.updateDisplay();
+        });
+    }
+
     private void startUpdateTimer() {
         updateTimer = new Timer();
         updateTimer.scheduleAtFixedRate(new TickTask(), 0, UPDATE_INTERVAL);
     }
 
+    private void startCachePurgeTimer() {
+        cachePurgeTimer = new Timer("jwsp-cache-purge", true);
+        cachePurgeTimer.scheduleAtFixedRate(new java.util.TimerTask() {
+            @Override
+            public void run() {
+                JadwalSholatService.getInstance().getCache().purgeExpired();
+            }
+        }, CACHE_PURGE_INTERVAL, CACHE_PURGE_INTERVAL);
+    }
+
     private class TickTask extends java.util.TimerTask {
         @Override
         public void run() {
@@ -241,6 +303,12 @@ public class ApplicationLifecycleManager implements TrayHandler.TrayCallback {
     
     public void shutdown() {
         if (updateTimer != null) updateTimer.cancel();
+        if (prefetchScheduler != null) prefetchScheduler.stop();
+        if (cacheJanitor != null) cacheJanitor.stop();
+        if (cachePurgeTimer != null) cachePurgeTimer.cancel();
+        RetryQueue.getInstance().stop();
+        OfflineCacheService.getInstance().flush();
+        System.out.println("[Cache] " + JadwalSholatService.getInstance().getCache());
         if (soundPlayer != null) soundPlayer.shutdown();
         if (mainFrame != null) mainFrame.dispose();
         if (trayHandler != null) trayHandler.remove();
@@ -1,5 +1,7 @@
 package jwsp.config;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.prefs.Preferences;
 
 public class UserPreferences {
@@ -11,11 +13,18 @@ public class UserPreferences {
     private static final String KEY_WIDGET_ENABLED = "widgetEnabled";
     private static final String KEY_TRAY_ENABLED = "trayEnabled";
     private static final String KEY_THEME = "selectedTheme";
+    private static final String KEY_FAVORITE_CITIES = "favoriteCityIds";
+    private static final String KEY_PREFETCH_DAYS = "prefetchDays";
+    private static final String KEY_CACHE_RETENTION_DAYS = "cacheRetentionDays";
+    private static final String KEY_CACHE_MAX_MB = "cacheMaxMegabytes";
     private static final String DEFAULT_PROVINCE = "DKI Jakarta";
     private static final String DEFAULT_CITY = "Jakarta";
     private static final String DEFAULT_ADZAN = "Adzan Makkah.mp3";
     private static final boolean DEFAULT_WIDGET = false;
     private static final boolean DEFAULT_TRAY = true;
+    private static final int DEFAULT_PREFETCH_DAYS = 7;
+    private static final int DEFAULT_CACHE_RETENTION_DAYS = 60;
+    private static final int DEFAULT_CACHE_MAX_MB = 16;
 
     private UserPreferences() {
         prefs = Preferences.userNodeForPackage(UserPreferences.class);
@@ -79,6 +88,70 @@ public class UserPreferences {
         prefs.put(KEY_THEME, theme);
     }
     
+    /**
+     * Id wilayah favorit (disimpan dipisah koma), ikut di-prefetch di latar
+     */
+    public List<String> getFavoriteCityIds() {
+        String raw = prefs.get(KEY_FAVORITE_CITIES, "");
+        List<String> ids = new ArrayList<>();
+        for (String id : raw.split(",")) {
+            if (!id.trim().isEmpty()) ids.add(id.trim());
+        }
+        return ids;
+    }
+
+    public void setFavoriteCityIds(List<String> ids) {
+        prefs.put(KEY_FAVORITE_CITIES, String.join(",", ids));
+    }
+
+    public void addFavoriteCity(String id) {
+        List<String> ids = getFavoriteCityIds();
+        if (!ids.contains(id)) {
+            ids.add(id);
+            setFavoriteCityIds(ids);
+        }
+    }
+
+    public void removeFavoriteCity(String id) {
+        List<String> ids = getFavoriteCityIds();
+        if (ids.remove(id)) {
+            setFavoriteCityIds(ids);
+        }
+    }
+
+    /**
+     * Jumlah hari ke depan (termasuk hari ini) yang dijaga tetap ada di cache
+     */
+    public int getPrefetchDays() {
+        return prefs.getInt(KEY_PREFETCH_DAYS, DEFAULT_PREFETCH_DAYS);
+    }
+
+    public void setPrefetchDays(int days) {
+        prefs.putInt(KEY_PREFETCH_DAYS, days);
+    }
+
+    /**
+     * Jadwal cache yang lebih lama dari ini (hari ke belakang) dihapus
+     */
+    public int getCacheRetentionDays() {
+        return prefs.getInt(KEY_CACHE_RETENTION_DAYS, DEFAULT_CACHE_RETENTION_DAYS);
+    }
+
+    public void setCacheRetentionDays(int days) {
+        prefs.putInt(KEY_CACHE_RETENTION_DAYS, days);
+    }
+
+    /**
+     * Batas total ukuran folder cache/prayer
+     */
+    public int getCacheMaxMegabytes() {
+        return prefs.getInt(KEY_CACHE_MAX_MB, DEFAULT_CACHE_MAX_MB);
+    }
+
+    public void setCacheMaxMegabytes(int megabytes) {
+        prefs.putInt(KEY_CACHE_MAX_MB, megabytes);
+    }
+
     public void saveAll(String province, String city, String adzan, 
                         boolean widget, boolean tray) {
         setProvince(province);
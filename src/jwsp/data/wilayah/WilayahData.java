@@ -18,6 +18,10 @@ public class WilayahData {
     // Daftar provinsi (sorted)
     private String[] daftarProvinsi;
     
+    // Koordinat kolumnar (indeks sama dengan getAllWilayah) untuk perhitungan massal
+    private double[] latitudes;
+    private double[] longitudes;
+    
     // Data file
     private static final String DATA_FILE = "data/wilayah.csv";
     
@@ -121,6 +125,15 @@ public class WilayahData {
         // Build provinsi list (sorted)
         Set<String> provinsiSet = new LinkedHashSet<>(byProvinsi.keySet());
         daftarProvinsi = provinsiSet.toArray(new String[0]);
+        
+        // Build kolom koordinat
+        int n = allWilayah.size();
+        latitudes = new double[n];
+        longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = allWilayah.get(i).getLatitude();
+            longitudes[i] = allWilayah.get(i).getLongitude();
+        }
     }
 
     public String[] getDaftarProvinsi() {
@@ -209,6 +222,24 @@ public class WilayahData {
         return allWilayah.isEmpty() ? null : allWilayah.get(0);
     }
 
+    public List<Wilayah> getAllWilayah() {
+        return Collections.unmodifiableList(allWilayah);
+    }
+
+    /**
+     * Kolom latitude seluruh wilayah (jangan diubah; indeks sama dengan getAllWilayah)
+     */
+    public double[] getLatitudeColumn() {
+        return latitudes;
+    }
+    
+    /**
+     * Kolom longitude seluruh wilayah (jangan diubah; indeks sama dengan getAllWilayah)
+     */
+    public double[] getLongitudeColumn() {
+        return longitudes;
+    }
+
     public int getTotalWilayah() {
         return allWilayah.size();
     }
@@ -0,0 +1,98 @@
+package jwsp.domain.prayer;
+
+/**
+ * Perhitungan massal banyak lokasi (kolom lat/lng) untuk satu hari per panggilan.
+ * Sudut jam dievaluasi sekaligus untuk satu rentang lokasi lewat {@link HourAngleKernel}.
+ *
+ * Buffer kerja berukuran satu slot per lokasi, sehingga panggilan paralel aman
+ * selama rentang [from, to) antar thread tidak tumpang tindih.
+ */
+public class BatchPrayerCalculator {
+
+    private final PrayerTimeCalculator calculator;
+    private final HourAngleKernel kernel;
+
+    private final double[] longitudes;
+    private final int[] tzOffsets;
+    private final double[] latRad;
+    private final double[] sinLat;
+    private final double[] cosLat;
+
+    private final double[] fajrHa;
+    private final double[] sunriseHa;
+    private final double[] asrHa;
+    private final double[] ishaHa;
+
+    public BatchPrayerCalculator(CalculationMethod method, double[] latitudes, double[] longitudes,
+                                 int[] tzOffsets) {
+        this(method, latitudes, longitudes, tzOffsets, HourAngleKernel.create());
+    }
+
+    public BatchPrayerCalculator(CalculationMethod method, double[] latitudes, double[] longitudes,
+                                 int[] tzOffsets, HourAngleKernel kernel) {
+        int n = latitudes.length;
+        this.calculator = new PrayerTimeCalculator(method);
+        this.kernel = kernel;
+        this.longitudes = longitudes;
+        this.tzOffsets = tzOffsets;
+        this.latRad = new double[n];
+        this.sinLat = new double[n];
+        this.cosLat = new double[n];
+        for (int i = 0; i < n; i++) {
+            latRad[i] = Math.toRadians(latitudes[i]);
+            sinLat[i] = Math.sin(latRad[i]);
+            cosLat[i] = Math.cos(latRad[i]);
+        }
+        this.fajrHa = new double[n];
+        this.sunriseHa = new double[n];
+        this.asrHa = new double[n];
+        this.ishaHa = new double[n];
+    }
+
+    /**
+     * Hitung satu hari untuk lokasi [from, to). Blok 8 waktu lokasi i ditulis ke
+     * out[firstOffset + (i - from) * stride].
+     */
+    public void computeDay(double decl, double eqt, int from, int to, int[] out, int firstOffset, int stride) {
+        double declRad = Math.toRadians(decl);
+        computeDay(declRad, Math.sin(declRad), Math.cos(declRad), eqt, from, to, out, firstOffset, stride);
+    }
+
+    /**
+     * Sama seperti {@link #computeDay(double, double, int, int, int[], int, int)}, dengan deklinasi
+     * beserta sin/cos-nya dan persamaan waktu diambil dari cache (tanpa trigonometri per hari)
+     * @param index indeks hari di ephemeris
+     */
+    public void computeDay(SolarEphemerisCache ephemeris, int index, int from, int to, int[] out,
+                           int firstOffset, int stride) {
+        computeDay(ephemeris.declinationRadAt(index), ephemeris.sinDeclinationAt(index),
+                   ephemeris.cosDeclinationAt(index), ephemeris.equationOfTimeAt(index),
+                   from, to, out, firstOffset, stride);
+    }
+
+    private void computeDay(double declRad, double sinDecl, double cosDecl, double eqt, int from, int to,
+                            int[] out, int firstOffset, int stride) {
+        CalculationMethod method = calculator.getMethod();
+        kernel.hourAngles(sinLat, cosLat, from, to, sinDecl, cosDecl, calculator.sinFajr, fajrHa);
+        kernel.hourAngles(sinLat, cosLat, from, to, sinDecl, cosDecl, PrayerTimeCalculator.SIN_SUNRISE, sunriseHa);
+        kernel.asrHourAngles(latRad, sinLat, cosLat, from, to, declRad, sinDecl, cosDecl,
+                             method.getAsrShadowFactor(), asrHa);
+        if (!method.isIshaByInterval()) {
+            kernel.hourAngles(sinLat, cosLat, from, to, sinDecl, cosDecl, calculator.sinIsha, ishaHa);
+        }
+
+        for (int i = from; i < to; i++) {
+            double dhuhr = PrayerTimeCalculator.dhuhrHours(eqt, longitudes[i], tzOffsets[i]);
+            calculator.writeTimes(dhuhr, fajrHa[i], sunriseHa[i], asrHa[i], ishaHa[i],
+                                  out, firstOffset + (i - from) * stride);
+        }
+    }
+
+    public CalculationMethod getMethod() {
+        return calculator.getMethod();
+    }
+
+    public int size() {
+        return sinLat.length;
+    }
+}
@@ -0,0 +1,117 @@
+package jwsp.domain.prayer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Profil metode perhitungan waktu sholat (sudut Subuh/Isya dan faktor Ashar).
+ * Sudut dinyatakan sebagai ketinggian matahari dalam derajat (negatif = di bawah ufuk).
+ */
+public final class CalculationMethod {
+
+    private static final List<CalculationMethod> REGISTRY = new ArrayList<>();
+
+    public static final CalculationMethod ISNA = register("ISNA", -15.0, -15.0, 0);
+    // Sudut yang sebelumnya di-hard-code di JadwalSholat (berlabel "ISNA")
+    public static final CalculationMethod MWL = register("MWL", -18.0, -17.0, 0);
+    public static final CalculationMethod KEMENAG = register("Kemenag", -20.0, -18.0, 0);
+    // Isya = Maghrib + 90 menit (tanpa penyesuaian khusus Ramadhan)
+    public static final CalculationMethod UMM_AL_QURA = register("Umm al-Qura", -18.5, 0.0, 90);
+
+    // Snapshot metode bawaan, tidak ikut berubah oleh register()
+    private static final List<CalculationMethod> BUILT_INS =
+        Collections.unmodifiableList(Arrays.asList(ISNA, MWL, KEMENAG, UMM_AL_QURA));
+
+    private final String name;
+    private final double fajrAngle;
+    private final double ishaAngle;
+    private final int ishaIntervalMinutes;
+    private final double asrShadowFactor;
+
+    /**
+     * @param name nama metode
+     * @param fajrAngle ketinggian matahari saat Subuh (derajat)
+     * @param ishaAngle ketinggian matahari saat Isya (derajat), diabaikan jika interval > 0
+     * @param ishaIntervalMinutes jika > 0, Isya = Maghrib + interval menit
+     * @param asrShadowFactor faktor bayangan Ashar (1 = Syafi'i, 2 = Hanafi)
+     */
+    public CalculationMethod(String name, double fajrAngle, double ishaAngle,
+                             int ishaIntervalMinutes, double asrShadowFactor) {
+        this.name = name;
+        this.fajrAngle = fajrAngle;
+        this.ishaAngle = ishaAngle;
+        this.ishaIntervalMinutes = ishaIntervalMinutes;
+        this.asrShadowFactor = asrShadowFactor;
+    }
+
+    /**
+     * Mendaftarkan metode baru (faktor Ashar standar) ke daftar metode yang tersedia
+     */
+    public static synchronized CalculationMethod register(String name, double fajrAngle,
+                                                          double ishaAngle, int ishaIntervalMinutes) {
+        return register(new CalculationMethod(name, fajrAngle, ishaAngle, ishaIntervalMinutes, 1.0));
+    }
+
+    /**
+     * @throws IllegalArgumentException jika nama sudah terdaftar (tanpa membedakan huruf besar/kecil)
+     */
+    public static synchronized CalculationMethod register(CalculationMethod method) {
+        if (byName(method.name) != null) {
+            throw new IllegalArgumentException("Metode sudah terdaftar: " + method.name);
+        }
+        REGISTRY.add(method);
+        return method;
+    }
+
+    /**
+     * Metode bawaan saja, urutan tetap
+     */
+    public static List<CalculationMethod> builtIns() {
+        return BUILT_INS;
+    }
+
+    /**
+     * Metode bawaan ditambah yang didaftarkan lewat {@link #register(CalculationMethod)}
+     */
+    public static synchronized List<CalculationMethod> values() {
+        return Collections.unmodifiableList(new ArrayList<>(REGISTRY));
+    }
+
+    public static synchronized CalculationMethod byName(String name) {
+        for (CalculationMethod m : REGISTRY) {
+            if (m.name.equalsIgnoreCase(name)) return m;
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getFajrAngle() {
+        return fajrAngle;
+    }
+
+    public double getIshaAngle() {
+        return ishaAngle;
+    }
+
+    public int getIshaIntervalMinutes() {
+        return ishaIntervalMinutes;
+    }
+
+    public boolean isIshaByInterval() {
+        return ishaIntervalMinutes > 0;
+    }
+
+    public double getAsrShadowFactor() {
+        return asrShadowFactor;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
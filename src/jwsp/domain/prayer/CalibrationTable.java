@@ -0,0 +1,98 @@
+package jwsp.domain.prayer;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tabel koreksi per kota per waktu (detik) untuk perhitungan manual, hasil
+ * {@code jwsp.api.CalibrationJob}. Disimpan sebagai file biner ringkas:
+ * jumlah kota, lalu per kota: id (UTF) + {@link PrayerTimeCalculator#TIMES_PER_DAY} × short.
+ */
+public class CalibrationTable {
+
+    private static CalibrationTable instance;
+    private static final String TABLE_FILE = "cache/calibration.bin";
+    private static final int SECONDS_PER_DAY = 86400;
+
+    private volatile Map<String, short[]> offsets = new HashMap<>();
+
+    private CalibrationTable() {
+        load();
+    }
+
+    public static synchronized CalibrationTable getInstance() {
+        if (instance == null) {
+            instance = new CalibrationTable();
+        }
+        return instance;
+    }
+
+    /**
+     * Terapkan koreksi kota ke blok 8 waktu (detik-dalam-hari). Tanpa efek jika kota belum dikalibrasi.
+     */
+    public void apply(String cityId, int[] times, int offset) {
+        short[] corr = offsets.get(cityId);
+        if (corr == null) return;
+        for (int k = 0; k < PrayerTimeCalculator.TIMES_PER_DAY; k++) {
+            times[offset + k] = Math.floorMod(times[offset + k] + corr[k], SECONDS_PER_DAY);
+        }
+    }
+
+    public boolean isCalibrated(String cityId) {
+        return offsets.containsKey(cityId);
+    }
+
+    public int size() {
+        return offsets.size();
+    }
+
+    /**
+     * Ganti seluruh isi tabel lalu simpan ke disk
+     */
+    public synchronized void replace(Map<String, short[]> newOffsets) {
+        this.offsets = new HashMap<>(newOffsets);
+        save();
+    }
+
+    private void load() {
+        Path path = Paths.get(TABLE_FILE);
+        if (!Files.exists(path)) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int count = in.readInt();
+            Map<String, short[]> loaded = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String cityId = in.readUTF();
+                short[] corr = new short[PrayerTimeCalculator.TIMES_PER_DAY];
+                for (int k = 0; k < corr.length; k++) {
+                    corr[k] = in.readShort();
+                }
+                loaded.put(cityId, corr);
+            }
+            offsets = loaded;
+        } catch (IOException e) {
+            System.err.println("[CalibrationTable] Failed to load: " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        Path path = Paths.get(TABLE_FILE);
+        try {
+            Files.createDirectories(path.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+                Map<String, short[]> snapshot = offsets;
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, short[]> e : snapshot.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    for (short s : e.getValue()) {
+                        out.writeShort(s);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("[CalibrationTable] Failed to save: " + e.getMessage());
+        }
+    }
+}
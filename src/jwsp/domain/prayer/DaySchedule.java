@@ -0,0 +1,62 @@
+package jwsp.domain.prayer;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Jadwal satu hari dalam bentuk ringkas: epoch day + {@link PrayerTimeCalculator#TIMES_PER_DAY}
+ * detik-dalam-hari waktu lokal. Immutable.
+ */
+public final class DaySchedule {
+
+    private final String cityId;
+    private final long epochDay;
+    private final int[] seconds;
+
+    DaySchedule(String cityId, long epochDay, int[] seconds) {
+        this.cityId = cityId;
+        this.epochDay = epochDay;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Id wilayah, atau null untuk query koordinat
+     */
+    public String getCityId() {
+        return cityId;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public int getSeconds(int slot) {
+        return seconds[slot];
+    }
+
+    public LocalTime getTime(int slot) {
+        int s = seconds[slot];
+        return LocalTime.of(s / 3600, (s / 60) % 60);
+    }
+
+    /**
+     * Salin 8 waktu ke array pemanggil
+     */
+    public void copyTo(int[] out, int offset) {
+        System.arraycopy(seconds, 0, out, offset, PrayerTimeCalculator.TIMES_PER_DAY);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getDate());
+        for (int k = 0; k < PrayerTimeCalculator.TIMES_PER_DAY; k++) {
+            sb.append(' ').append(PrayerTimeCalculator.SLOT_KEYS[k]).append('=').append(getTime(k));
+        }
+        return sb.toString();
+    }
+}
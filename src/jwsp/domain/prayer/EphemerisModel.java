@@ -0,0 +1,11 @@
+package jwsp.domain.prayer;
+
+/**
+ * Model posisi matahari yang dipakai untuk mengisi {@link SolarEphemerisCache}
+ */
+public enum EphemerisModel {
+    // Rumus presisi rendah (g, q, L, e) seperti perhitungan manual awal
+    LOW_PRECISION,
+    // Meeus bab 25/28 (terpotong): nutasi, aberasi, kemiringan semu dan equation of time penuh
+    MEEUS
+}
@@ -0,0 +1,37 @@
+package jwsp.domain.prayer;
+
+/**
+ * Kernel sudut jam untuk banyak lokasi sekaligus pada satu hari (deklinasi sama).
+ * Hasil dalam jam, ditulis ke out[i] untuk setiap i di [from, to).
+ *
+ * Implementasi tidak menyimpan state, sehingga aman dipanggil paralel untuk rentang yang berbeda.
+ */
+public interface HourAngleKernel {
+
+    /**
+     * Sudut jam saat matahari mencapai ketinggian dengan sinus sinAltitude
+     */
+    void hourAngles(double[] sinLat, double[] cosLat, int from, int to,
+                    double sinDecl, double cosDecl, double sinAltitude, double[] out);
+
+    /**
+     * Sudut jam Ashar (ketinggian bergantung pada |lat - decl| tiap lokasi)
+     */
+    void asrHourAngles(double[] latRad, double[] sinLat, double[] cosLat, int from, int to,
+                       double declRad, double sinDecl, double cosDecl, double shadowFactor, double[] out);
+
+    /**
+     * Kernel Vector API jika modul jdk.incubator.vector tersedia saat runtime, selain itu skalar
+     */
+    static HourAngleKernel create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (HourAngleKernel) Class.forName("jwsp.domain.prayer.VectorHourAngleKernel")
+                    .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fallback ke skalar
+            }
+        }
+        return new ScalarHourAngleKernel();
+    }
+}
@@ -17,15 +17,15 @@ public class JadwalSholat {
         "Subuh", "Dzuhur", "Ashar", "Maghrib", "Isya"
     };
     
-    // Angle constants (ISNA method)
-    private static final double FAJR_ANGLE = -18.0;
-    private static final double SUNRISE_ANGLE = -0.833;
-    private static final double MAGHRIB_ANGLE = -0.833;
-    private static final double ISHA_ANGLE = -17.0;
+    // Metode perhitungan manual (sudut -18/-17, sebelumnya berlabel ISNA)
+    public static final CalculationMethod METODE_MANUAL = CalculationMethod.MWL;
+    private static final PrayerTimeCalculator CALCULATOR = new PrayerTimeCalculator(METODE_MANUAL);
     
     private Wilayah wilayah;
     private LocalDate tanggal;
     private LocalTime[] waktuSholat;
+    private final int[] times = new int[PrayerTimeCalculator.TIMES_PER_DAY];
+    private ObserverLocation location;
     private double latitude;
     private double longitude;
     private ZoneId zonaWaktu;
@@ -111,123 +111,36 @@ public class JadwalSholat {
     }
 
     private void hitungJadwal() {
-        // Hitung Julian Day
-        int year = tanggal.getYear();
-        int month = tanggal.getMonthValue();
-        int day = tanggal.getDayOfMonth();
-        
-        double jd = julianDay(year, month, day);
-        
-        // Timezone offset in hours
-        int tzOffset = getTimezoneOffset();
-        
-        // Calculate prayer times
-        double[] times = calculatePrayerTimes(jd, latitude, longitude, tzOffset);
-        
-        // Convert to LocalTime
-        waktuSholat[0] = doubleToTime(times[0]); // Subuh
-        waktuSholat[1] = doubleToTime(times[1]); // Dzuhur
-        waktuSholat[2] = doubleToTime(times[2]); // Ashar
-        waktuSholat[3] = doubleToTime(times[3]); // Maghrib
-        waktuSholat[4] = doubleToTime(times[4]); // Isya
-        
-        // Sunrise and Dhuha (Manual Fallback)
-        this.sunriseTime = doubleToTime(times[5]); // times[5] will hold sunrise
-        this.dhuhaTime = sunriseTime.plusMinutes(15);
-    }
-
-    private double julianDay(int year, int month, int day) {
-        if (month <= 2) {
-            year -= 1;
-            month += 12;
+        CALCULATOR.compute(SolarEphemerisCache.getShared(), tanggal.toEpochDay(), getLocation(), times, 0);
+        if (wilayah != null) {
+            // Koreksi hasil kalibrasi terhadap data API (lihat CalibrationJob)
+            CalibrationTable.getInstance().apply(wilayah.getId(), times, 0);
         }
-        int a = year / 100;
-        int b = 2 - a + a / 4;
-        return Math.floor(365.25 * (year + 4716)) + 
-               Math.floor(30.6001 * (month + 1)) + 
-               day + b - 1524.5;
-    }
-    
-    private double[] calculatePrayerTimes(double jd, double lat, double lng, int tzOffset) {
-        double[] times = new double[6];
-        
-        // Sun declination for this day
-        double D = jd - 2451545.0;
-        double g = fixAngle(357.529 + 0.98560028 * D);
-        double q = fixAngle(280.459 + 0.98564736 * D);
-        double L = fixAngle(q + 1.915 * dSin(g) + 0.020 * dSin(2 * g));
-        double e = 23.439 - 0.00000036 * D;
-        double RA = dArctan2(dCos(e) * dSin(L), dCos(L)) / 15.0;
-        RA = fixHour(RA);
-        double decl = dArcsin(dSin(e) * dSin(L));
-        double eqt = q / 15.0 - RA;
         
-        // Calculate Dhuhr time
-        double dhuhr = 12 + tzOffset - lng / 15.0 - eqt;
+        waktuSholat[0] = secondsToTime(times[PrayerTimeCalculator.FAJR]);    // Subuh
+        waktuSholat[1] = secondsToTime(times[PrayerTimeCalculator.DHUHR]);   // Dzuhur
+        waktuSholat[2] = secondsToTime(times[PrayerTimeCalculator.ASR]);     // Ashar
+        waktuSholat[3] = secondsToTime(times[PrayerTimeCalculator.MAGHRIB]); // Maghrib
+        waktuSholat[4] = secondsToTime(times[PrayerTimeCalculator.ISHA]);    // Isya
         
-        // Calculate prayer times
-        times[1] = dhuhr; // Dzuhur
-        times[0] = dhuhr - hourAngle(lat, decl, FAJR_ANGLE) / 15.0; // Subuh
-        double sunrise = dhuhr - hourAngle(lat, decl, SUNRISE_ANGLE) / 15.0;
-        times[2] = dhuhr + asarFactor(lat, decl); // Ashar
-        times[3] = dhuhr + hourAngle(lat, decl, MAGHRIB_ANGLE) / 15.0; // Maghrib
-        times[4] = dhuhr + hourAngle(lat, decl, ISHA_ANGLE) / 15.0; // Isya
-        times[5] = sunrise;
-        
-        return times;
-    }
-
-    private double hourAngle(double lat, double decl, double angle) {
-        double cosHa = (dSin(angle) - dSin(lat) * dSin(decl)) / 
-                       (dCos(lat) * dCos(decl));
-        if (cosHa < -1) cosHa = -1;
-        if (cosHa > 1) cosHa = 1;
-        return dArccos(cosHa);
-    }
-
-    private double asarFactor(double lat, double decl) {
-        double factor = 1; // Standard
-        double angle = dArccot(factor + dTan(Math.abs(lat - decl)));
-        return hourAngle(lat, decl, angle) / 15.0;
-    }
-    
-    private int getTimezoneOffset() {
-        String zone = zonaWaktu.getId();
-        if (zone.contains("Jakarta")) return 7;
-        if (zone.contains("Makassar")) return 8;
-        if (zone.contains("Jayapura")) return 9;
-        return 7; // Default WIB
-    }
-    
-    private LocalTime doubleToTime(double hours) {
-        hours = fixHour(hours);
-        int h = (int) Math.floor(hours);
-        int m = (int) Math.floor((hours - h) * 60);
-        if (h < 0) h = 0;
-        if (h > 23) h = 23;
-        if (m < 0) m = 0;
-        if (m > 59) m = 59;
-        return LocalTime.of(h, m);
+        // Sunrise and Dhuha (Manual Fallback)
+        this.sunriseTime = secondsToTime(times[PrayerTimeCalculator.SUNRISE]);
+        this.dhuhaTime = secondsToTime(times[PrayerTimeCalculator.DHUHA]);
     }
     
-    private double fixAngle(double a) {
-        a = a - 360.0 * Math.floor(a / 360.0);
-        return a < 0 ? a + 360.0 : a;
+    private ObserverLocation getLocation() {
+        int tz = PrayerTimeCalculator.utcOffsetHours(zonaWaktu);
+        if (location == null || location.getLatitude() != latitude
+                || location.getLongitude() != longitude || location.getTzOffset() != tz) {
+            location = new ObserverLocation(latitude, longitude, tz);
+        }
+        return location;
     }
     
-    private double fixHour(double a) {
-        a = a - 24.0 * Math.floor(a / 24.0);
-        return a < 0 ? a + 24.0 : a;
+    private static LocalTime secondsToTime(int seconds) {
+        return LocalTime.of(seconds / 3600, (seconds / 60) % 60);
     }
     
-    private double dSin(double d) { return Math.sin(Math.toRadians(d)); }
-    private double dCos(double d) { return Math.cos(Math.toRadians(d)); }
-    private double dTan(double d) { return Math.tan(Math.toRadians(d)); }
-    private double dArcsin(double x) { return Math.toDegrees(Math.asin(x)); }
-    private double dArccos(double x) { return Math.toDegrees(Math.acos(x)); }
-    private double dArctan2(double y, double x) { return Math.toDegrees(Math.atan2(y, x)); }
-    private double dArccot(double x) { return Math.toDegrees(Math.atan(1.0 / x)); }
-    
     public String getWaktuString(int index) {
         if (index < 0 || index >= 5) return "--:--";
         return waktuSholat[index].format(DateTimeFormatter.ofPattern("HH:mm"));
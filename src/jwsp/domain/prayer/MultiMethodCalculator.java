@@ -0,0 +1,81 @@
+package jwsp.domain.prayer;
+
+import java.util.List;
+
+/**
+ * Menghitung beberapa metode sekaligus untuk satu lokasi dan hari dalam satu lintasan.
+ * Dzuhur, deklinasi, terbit/Maghrib dan Ashar dihitung sekali; hanya sudut Subuh/Isya
+ * yang dievaluasi per metode.
+ *
+ * Hasil berupa matriks datar: out[offset + m * TIMES_PER_DAY + slot] untuk metode ke-m.
+ * Instance immutable dan aman dipakai bersama antar thread.
+ */
+public class MultiMethodCalculator {
+
+    private final CalculationMethod[] methods;
+    private final PrayerTimeCalculator[] calculators;
+
+    /**
+     * Metode bawaan ({@link CalculationMethod#builtIns()}); metode hasil register() harus
+     * diberikan eksplisit lewat konstruktor berparameter
+     */
+    public MultiMethodCalculator() {
+        this(CalculationMethod.builtIns());
+    }
+
+    public MultiMethodCalculator(List<CalculationMethod> methods) {
+        this.methods = methods.toArray(new CalculationMethod[0]);
+        this.calculators = new PrayerTimeCalculator[this.methods.length];
+        for (int m = 0; m < this.methods.length; m++) {
+            calculators[m] = new PrayerTimeCalculator(this.methods[m]);
+        }
+    }
+
+    public int getMethodCount() {
+        return methods.length;
+    }
+
+    public CalculationMethod getMethod(int index) {
+        return methods[index];
+    }
+
+    /**
+     * Matriks kosong berukuran metode × {@link PrayerTimeCalculator#TIMES_PER_DAY}
+     */
+    public int[] newMatrix() {
+        return new int[methods.length * PrayerTimeCalculator.TIMES_PER_DAY];
+    }
+
+    public void compute(SolarEphemerisCache ephemeris, long epochDay, ObserverLocation location,
+                        int[] out, int offset) {
+        SolarTerms sun = SolarTerms.of(ephemeris, epochDay);
+
+        // Suku bersama semua metode
+        double sinLatSinDecl = location.getSinLat() * sun.sinDecl;
+        double cosLatCosDecl = location.getCosLat() * sun.cosDecl;
+        double dhuhr = PrayerTimeCalculator.dhuhrHours(sun.eqt, location.getLongitude(), location.getTzOffset());
+        double sunriseHa = SolarMath.hourAngleHours(PrayerTimeCalculator.SIN_SUNRISE, sinLatSinDecl, cosLatCosDecl);
+
+        double asrFactor = Double.NaN;
+        double asrHa = 0;
+        for (int m = 0; m < methods.length; m++) {
+            CalculationMethod method = methods[m];
+            PrayerTimeCalculator calc = calculators[m];
+
+            // Ashar hanya dihitung ulang bila faktor bayangan berbeda dari metode sebelumnya
+            if (method.getAsrShadowFactor() != asrFactor) {
+                asrFactor = method.getAsrShadowFactor();
+                asrHa = SolarMath.hourAngleHours(
+                    SolarMath.asrSinAltitude(location.getLatRad(), sun.declRad, asrFactor),
+                    sinLatSinDecl, cosLatCosDecl);
+            }
+
+            double fajrHa = SolarMath.hourAngleHours(calc.sinFajr, sinLatSinDecl, cosLatCosDecl);
+            double ishaHa = method.isIshaByInterval()
+                ? 0 : SolarMath.hourAngleHours(calc.sinIsha, sinLatSinDecl, cosLatCosDecl);
+
+            calc.writeTimes(dhuhr, fajrHa, sunriseHa, asrHa, ishaHa,
+                            out, offset + m * PrayerTimeCalculator.TIMES_PER_DAY);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package jwsp.domain.prayer;
+
+/**
+ * Lokasi pengamat dengan suku trigonometri lintang yang sudah dihitung sekali
+ */
+public final class ObserverLocation {
+
+    private final double latitude;
+    private final double longitude;
+    private final double tzOffset;
+    private final double latRad;
+    private final double sinLat;
+    private final double cosLat;
+
+    public ObserverLocation(double latitude, double longitude, double tzOffset) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.tzOffset = tzOffset;
+        this.latRad = Math.toRadians(latitude);
+        this.sinLat = Math.sin(latRad);
+        this.cosLat = Math.cos(latRad);
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getTzOffset() {
+        return tzOffset;
+    }
+
+    public double getLatRad() {
+        return latRad;
+    }
+
+    public double getSinLat() {
+        return sinLat;
+    }
+
+    public double getCosLat() {
+        return cosLat;
+    }
+}
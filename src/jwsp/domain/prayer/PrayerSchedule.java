@@ -6,16 +6,36 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class PrayerSchedule {
-    private final Map<String, LocalTime> times = new HashMap<>();
+    private final Map<String, LocalTime> times;
     private final String date;
     private final String cityId;
+    private final boolean immutable;
 
     public PrayerSchedule(String cityId, String date) {
+        this(cityId, date, new HashMap<>(), false);
+    }
+
+    private PrayerSchedule(String cityId, String date, Map<String, LocalTime> times, boolean immutable) {
         this.cityId = cityId;
         this.date = date;
+        this.times = times;
+        this.immutable = immutable;
+    }
+
+    /**
+     * Salinan yang tidak bisa diubah; aman dibagikan ke thread lain tanpa sinkronisasi
+     * (semua field final). Mengembalikan objek ini sendiri jika sudah berupa snapshot.
+     */
+    public PrayerSchedule snapshot() {
+        return immutable ? this : new PrayerSchedule(cityId, date, Map.copyOf(times), true);
+    }
+
+    public boolean isSnapshot() {
+        return immutable;
     }
 
     public void setTime(String name, String timeStr) {
+        checkMutable();
         if (timeStr == null || timeStr.isEmpty()) return;
         try {
             // API usually returns HH:mm
@@ -30,10 +50,30 @@ public class PrayerSchedule {
         }
     }
 
+    public void setTime(String name, LocalTime time) {
+        checkMutable();
+        if (time != null) {
+            times.put(name.toLowerCase(), time);
+        }
+    }
+
+    private void checkMutable() {
+        if (immutable) {
+            throw new IllegalStateException("Snapshot jadwal tidak bisa diubah: " + cityId + " " + date);
+        }
+    }
+
     public LocalTime getTime(String name) {
         return times.get(name.toLowerCase());
     }
 
+    /**
+     * true jika semua waktu sama dengan jadwal lain
+     */
+    public boolean hasSameTimes(PrayerSchedule other) {
+        return other != null && times.equals(other.times);
+    }
+
     public String getDate() {
         return date;
     }
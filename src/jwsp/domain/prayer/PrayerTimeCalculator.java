@@ -0,0 +1,296 @@
+package jwsp.domain.prayer;
+
+import java.time.ZoneId;
+
+/**
+ * Mesin perhitungan waktu sholat astronomis tanpa alokasi objek per panggilan.
+ * Hasil ditulis sebagai detik-dalam-hari (0..86399, waktu lokal) ke array int milik pemanggil,
+ * sebanyak {@link #TIMES_PER_DAY} slot mulai dari offset yang diberikan.
+ *
+ * Instance bersifat immutable sehingga aman dipakai bersama antar thread.
+ */
+public final class PrayerTimeCalculator {
+
+    // Indeks slot (lima pertama sama dengan urutan JadwalSholat.NAMA_SHOLAT)
+    public static final int FAJR = 0;
+    public static final int DHUHR = 1;
+    public static final int ASR = 2;
+    public static final int MAGHRIB = 3;
+    public static final int ISHA = 4;
+    public static final int SUNRISE = 5;
+    public static final int IMSAK = 6;
+    public static final int DHUHA = 7;
+    public static final int TIMES_PER_DAY = 8;
+
+    // Nama key PrayerSchedule untuk tiap slot
+    public static final String[] SLOT_KEYS = {
+        "fajr", "dhuhr", "asr", "maghrib", "isya", "sunrise", "imsak", "dhuha"
+    };
+
+    private static final double SUNRISE_ANGLE = -0.833;
+    private static final int IMSAK_OFFSET_SECONDS = 10 * 60;
+    private static final int DHUHA_OFFSET_SECONDS = 15 * 60;
+    private static final int SECONDS_PER_DAY = 86400;
+
+    static final double SIN_SUNRISE = Math.sin(Math.toRadians(SUNRISE_ANGLE));
+
+    private final CalculationMethod method;
+    private final boolean fastTrig;
+    private final boolean refineEvents;
+    final double sinFajr;
+    final double sinIsha;
+    private final double ishaIntervalHours;
+
+    public PrayerTimeCalculator(CalculationMethod method) {
+        this(method, false);
+    }
+
+    /**
+     * @param fastTrig pakai arccos cepat (galat ≤ {@link SolarMath#FAST_MAX_ERROR_SECONDS} detik per waktu)
+     */
+    public PrayerTimeCalculator(CalculationMethod method, boolean fastTrig) {
+        this(method, fastTrig, false);
+    }
+
+    private PrayerTimeCalculator(CalculationMethod method, boolean fastTrig, boolean refineEvents) {
+        this.method = method;
+        this.fastTrig = fastTrig;
+        this.refineEvents = refineEvents;
+        this.sinFajr = Math.sin(Math.toRadians(method.getFajrAngle()));
+        this.sinIsha = Math.sin(Math.toRadians(method.getIshaAngle()));
+        this.ishaIntervalHours = method.getIshaIntervalMinutes() / 60.0;
+    }
+
+    /**
+     * Kalkulator akurasi tinggi: pada jalur {@link #compute(SolarEphemerisCache, long, ObserverLocation, int[], int)}
+     * setiap waktu dihitung dua kali, kedua kalinya dengan deklinasi dan equation of time yang
+     * diinterpolasi ke saat kejadian itu sendiri. Pasangkan dengan cache {@link EphemerisModel#MEEUS}.
+     */
+    public static PrayerTimeCalculator highAccuracy(CalculationMethod method) {
+        return new PrayerTimeCalculator(method, false, true);
+    }
+
+    public CalculationMethod getMethod() {
+        return method;
+    }
+
+    public boolean isRefiningEvents() {
+        return refineEvents;
+    }
+
+    public boolean isFastTrig() {
+        return fastTrig;
+    }
+
+    /**
+     * Hitung jadwal untuk tanggal kalender tertentu (suku matahari dari cache bersama)
+     */
+    public void compute(int year, int month, int day, double lat, double lng,
+                        double tzOffset, int[] out, int offset) {
+        long epochDay = (long) (julianDay(year, month, day) - SolarEphemerisCache.EPOCH_DAY_JD_OFFSET);
+        compute(SolarEphemerisCache.getShared(), epochDay, lat, lng, tzOffset, out, offset);
+    }
+
+    /**
+     * Hitung jadwal untuk epoch day tertentu memakai suku matahari dari cache
+     */
+    public void compute(SolarEphemerisCache ephemeris, long epochDay, double lat, double lng,
+                        double tzOffset, int[] out, int offset) {
+        computeFromSun(ephemeris.declination(epochDay), ephemeris.equationOfTime(epochDay),
+                       lat, lng, tzOffset, out, offset);
+    }
+
+    /**
+     * Hitung jadwal untuk lokasi dengan sin/cos lintang yang sudah dihitung sebelumnya.
+     * Jalur tercepat: tidak ada trigonometri lintang maupun deklinasi bila hari ada di cache.
+     */
+    public void compute(SolarEphemerisCache ephemeris, long epochDay, ObserverLocation location,
+                        int[] out, int offset) {
+        int i = ephemeris.indexOf(epochDay);
+        if (refineEvents && i >= 0) {
+            computeRefined(ephemeris, i, location, out, offset);
+            return;
+        }
+        SolarTerms sun = SolarTerms.of(ephemeris, epochDay);
+        computeTrig(sun.declRad, sun.sinDecl, sun.cosDecl, sun.eqt, location.getLatRad(),
+                    location.getSinLat(), location.getCosLat(), location.getLongitude(),
+                    location.getTzOffset(), out, offset);
+    }
+
+    /**
+     * Hitung jadwal untuk Julian Day (tengah malam UT) tertentu
+     */
+    public void compute(double jd, double lat, double lng, double tzOffset, int[] out, int offset) {
+        computeFromSun(declination(jd), equationOfTime(jd), lat, lng, tzOffset, out, offset);
+    }
+
+    /**
+     * Hitung jadwal dari suku matahari yang sudah diketahui (deklinasi dalam derajat,
+     * equation of time dalam jam). Dipakai bila suku harian dibagi ke banyak lokasi.
+     */
+    public void computeFromSun(double decl, double eqt, double lat, double lng,
+                               double tzOffset, int[] out, int offset) {
+        double latRad = Math.toRadians(lat);
+        double declRad = Math.toRadians(decl);
+        computeTrig(declRad, Math.sin(declRad), Math.cos(declRad), eqt,
+                    latRad, Math.sin(latRad), Math.cos(latRad), lng, tzOffset, out, offset);
+    }
+
+    private void computeTrig(double declRad, double sinDecl, double cosDecl, double eqt,
+                             double latRad, double sinLat, double cosLat, double lng,
+                             double tzOffset, int[] out, int offset) {
+        double sinLatSinDecl = sinLat * sinDecl;
+        double cosLatCosDecl = cosLat * cosDecl;
+
+        double sunriseHa = hourAngle(SIN_SUNRISE, sinLatSinDecl, cosLatCosDecl);
+        double asrHa = hourAngle(SolarMath.asrSinAltitude(latRad, declRad, method.getAsrShadowFactor()),
+                                 sinLatSinDecl, cosLatCosDecl);
+        double fajrHa = hourAngle(sinFajr, sinLatSinDecl, cosLatCosDecl);
+        double ishaHa = method.isIshaByInterval() ? 0 : hourAngle(sinIsha, sinLatSinDecl, cosLatCosDecl);
+
+        writeTimes(dhuhrHours(eqt, lng, tzOffset), fajrHa, sunriseHa, asrHa, ishaHa, out, offset);
+    }
+
+    /**
+     * Dua lintasan: lintasan pertama memakai suku matahari saat transit perkiraan,
+     * lintasan kedua memakai suku matahari saat kejadian hasil lintasan pertama.
+     */
+    private void computeRefined(SolarEphemerisCache ephemeris, int index, ObserverLocation location,
+                                int[] out, int offset) {
+        double tz = location.getTzOffset();
+        double transitN = (12.0 - location.getLongitude() / 15.0) / 24.0;
+        double declRad = ephemeris.declinationRadAt(index, transitN);
+        double eqt = ephemeris.equationOfTimeAt(index, transitN);
+
+        double fajr = refineEvent(FAJR, ephemeris, index, location, declRad, eqt, tz);
+        double sunrise = refineEvent(SUNRISE, ephemeris, index, location, declRad, eqt, tz);
+        double dhuhr = refineEvent(DHUHR, ephemeris, index, location, declRad, eqt, tz);
+        double asr = refineEvent(ASR, ephemeris, index, location, declRad, eqt, tz);
+        double maghrib = refineEvent(MAGHRIB, ephemeris, index, location, declRad, eqt, tz);
+        double isha = method.isIshaByInterval()
+            ? maghrib + ishaIntervalHours
+            : refineEvent(ISHA, ephemeris, index, location, declRad, eqt, tz);
+
+        writeAbsolute(fajr, sunrise, dhuhr, asr, maghrib, isha, out, offset);
+    }
+
+    private double refineEvent(int slot, SolarEphemerisCache ephemeris, int index, ObserverLocation location,
+                               double declRad, double eqt, double tz) {
+        double first = eventHours(slot, location, declRad, eqt);
+        double n = (first - tz) / 24.0;
+        return eventHours(slot, location, ephemeris.declinationRadAt(index, n), ephemeris.equationOfTimeAt(index, n));
+    }
+
+    /**
+     * Waktu lokal (jam) satu kejadian untuk suku matahari tertentu
+     */
+    private double eventHours(int slot, ObserverLocation location, double declRad, double eqt) {
+        double dhuhr = dhuhrHours(eqt, location.getLongitude(), location.getTzOffset());
+        if (slot == DHUHR) return dhuhr;
+
+        double sinLatSinDecl = location.getSinLat() * Math.sin(declRad);
+        double cosLatCosDecl = location.getCosLat() * Math.cos(declRad);
+        switch (slot) {
+            case FAJR:
+                return dhuhr - hourAngle(sinFajr, sinLatSinDecl, cosLatCosDecl);
+            case SUNRISE:
+                return dhuhr - hourAngle(SIN_SUNRISE, sinLatSinDecl, cosLatCosDecl);
+            case ASR:
+                return dhuhr + hourAngle(SolarMath.asrSinAltitude(location.getLatRad(), declRad,
+                                         method.getAsrShadowFactor()), sinLatSinDecl, cosLatCosDecl);
+            case MAGHRIB:
+                return dhuhr + hourAngle(SIN_SUNRISE, sinLatSinDecl, cosLatCosDecl);
+            default:
+                return dhuhr + hourAngle(sinIsha, sinLatSinDecl, cosLatCosDecl);
+        }
+    }
+
+    private double hourAngle(double sinAltitude, double sinLatSinDecl, double cosLatCosDecl) {
+        return fastTrig
+            ? SolarMath.fastHourAngleHours(sinAltitude, sinLatSinDecl, cosLatCosDecl)
+            : SolarMath.hourAngleHours(sinAltitude, sinLatSinDecl, cosLatCosDecl);
+    }
+
+    /**
+     * Tulis 8 waktu dari Dzuhur dan sudut jam masing-masing (jam). Dipakai jalur tunggal dan massal.
+     */
+    void writeTimes(double dhuhr, double fajrHa, double sunriseHa, double asrHa, double ishaHa,
+                    int[] out, int offset) {
+        double maghrib = dhuhr + sunriseHa;
+        double isha = method.isIshaByInterval() ? maghrib + ishaIntervalHours : dhuhr + ishaHa;
+        writeAbsolute(dhuhr - fajrHa, dhuhr - sunriseHa, dhuhr, dhuhr + asrHa, maghrib, isha, out, offset);
+    }
+
+    private static void writeAbsolute(double fajr, double sunrise, double dhuhr, double asr,
+                                      double maghrib, double isha, int[] out, int offset) {
+        int fajrSec = toSeconds(fajr);
+        int sunriseSec = toSeconds(sunrise);
+
+        out[offset + FAJR] = fajrSec;
+        out[offset + DHUHR] = toSeconds(dhuhr);
+        out[offset + ASR] = toSeconds(asr);
+        out[offset + MAGHRIB] = toSeconds(maghrib);
+        out[offset + ISHA] = toSeconds(isha);
+        out[offset + SUNRISE] = sunriseSec;
+        out[offset + IMSAK] = Math.floorMod(fajrSec - IMSAK_OFFSET_SECONDS, SECONDS_PER_DAY);
+        out[offset + DHUHA] = Math.floorMod(sunriseSec + DHUHA_OFFSET_SECONDS, SECONDS_PER_DAY);
+    }
+
+    static double dhuhrHours(double eqt, double lng, double tzOffset) {
+        return 12 + tzOffset - lng / 15.0 - eqt;
+    }
+
+    /**
+     * Deklinasi matahari (derajat) untuk Julian Day tertentu
+     */
+    public static double declination(double jd) {
+        return Math.toDegrees(SolarMath.declinationRad(jd));
+    }
+
+    /**
+     * Right ascension matahari (jam, 0..24) untuk Julian Day tertentu
+     */
+    public static double rightAscension(double jd) {
+        return SolarMath.rightAscensionHours(jd);
+    }
+
+    /**
+     * Equation of time (jam) untuk Julian Day tertentu
+     */
+    public static double equationOfTime(double jd) {
+        return SolarMath.equationOfTimeHours(jd);
+    }
+
+    public static double julianDay(int year, int month, int day) {
+        if (month <= 2) {
+            year -= 1;
+            month += 12;
+        }
+        int a = year / 100;
+        int b = 2 - a + a / 4;
+        return Math.floor(365.25 * (year + 4716)) +
+               Math.floor(30.6001 * (month + 1)) +
+               day + b - 1524.5;
+    }
+
+    /**
+     * Offset UTC (jam) untuk zona waktu Indonesia
+     */
+    public static int utcOffsetHours(ZoneId zone) {
+        String id = zone.getId();
+        if (id.contains("Jakarta")) return 7;
+        if (id.contains("Makassar")) return 8;
+        if (id.contains("Jayapura")) return 9;
+        return 7; // Default WIB
+    }
+
+    private static int toSeconds(double hours) {
+        int s = (int) Math.floor(fixHour(hours) * 3600.0);
+        return s >= SECONDS_PER_DAY ? SECONDS_PER_DAY - 1 : s;
+    }
+
+    private static double fixHour(double a) {
+        a = a - 24.0 * Math.floor(a / 24.0);
+        return a < 0 ? a + 24.0 : a;
+    }
+}
@@ -103,10 +103,15 @@ public class PrayerTimeController {
                       jadwalSholat.getWilayah().getZonaWaktu() : 
                       DataKota.getZonaWaktu(jadwalSholat.getNamaKota());
         LocalTime now = LocalTime.now(zone);
+        LocalDate today = LocalDate.now(zone);
         
-        PrayerSchedule schedule = JadwalSholatService.getInstance().getCurrentSchedule();
+        // Snapshot milik kota controller ini sendiri, bukan jadwal yang terakhir diambil service
+        PrayerSchedule schedule = null;
+        if (jadwalSholat.getWilayah() != null) {
+            schedule = JadwalSholatService.getInstance().getSnapshot(jadwalSholat.getWilayah().getId(), today);
+        }
         if (schedule == null) {
-            schedule = new PrayerSchedule(jadwalSholat.getNamaKota(), LocalDate.now().toString());
+            schedule = new PrayerSchedule(jadwalSholat.getNamaKota(), today.toString());
             schedule.setTime("fajr", jadwalSholat.getWaktuString(0));
             schedule.setTime("sunrise", jadwalSholat.getWaktuSunrise());
             schedule.setTime("dhuha", jadwalSholat.getWaktuDhuha());
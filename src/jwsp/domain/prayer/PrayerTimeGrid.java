@@ -0,0 +1,254 @@
+package jwsp.domain.prayer;
+
+import java.time.LocalDate;
+
+/**
+ * Grid lat/lon prakomputasi di atas wilayah Indonesia untuk melayani koordinat GPS sembarang
+ * dengan interpolasi bilinear (waktu konstan per query).
+ *
+ * Anggaran akurasi: saat dibangun, setiap sel diuji di lima titik (tengah sel dan titik tengah
+ * keempat sisinya) terhadap perhitungan eksak, untuk semua hari dan semua waktu. Sel yang galatnya
+ * melebihi maxErrorSeconds ditandai dan dilayani dengan perhitungan eksak. Ini batas empiris, bukan
+ * jaminan: titik lain di dalam sel bisa sedikit melebihi galat terukur (uji acak 100.000 koordinat
+ * pada resolusi default tidak melebihi {@link #getMeasuredMaxErrorSeconds()} + 1 detik).
+ * Koordinat non-finite (NaN/∞), koordinat atau tanggal di luar grid dihitung eksak.
+ *
+ * Nilai grid disimpan pada zona referensi UTC+8 agar seluruh waktu di Indonesia tidak melewati
+ * tengah malam (interpolasi tanpa wrap), lalu digeser ke offset zona waktu pemanggil.
+ *
+ * Memori: 2 byte per (node, hari, waktu), yaitu sekitar rows × cols × days × 16 byte. Resolusi
+ * 0,25° (73 × 189 node) untuk 365 hari ≈ 80 MB; 0,5° ≈ 20 MB; 0,25° untuk 30 hari ≈ 6,6 MB.
+ * Dengan heap default peluncur (-Xmx256m) pakailah rentang pendek atau resolusi kasar.
+ */
+public class PrayerTimeGrid {
+
+    public static final double MIN_LAT = -11.5;
+    public static final double MAX_LAT = 6.5;
+    public static final double MIN_LNG = 94.5;
+    public static final double MAX_LNG = 141.5;
+
+    public static final double DEFAULT_RESOLUTION = 0.25;
+    public static final int DEFAULT_MAX_ERROR_SECONDS = 30;
+
+    private static final int REFERENCE_TZ = 8;
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int SLOTS = PrayerTimeCalculator.TIMES_PER_DAY;
+
+    private final PrayerTimeCalculator exact;
+    private final long firstEpochDay;
+    private final int days;
+    private final double resolution;
+    private final int rows;
+    private final int cols;
+    private final int maxErrorSeconds;
+
+    // ((day * rows + r) * cols + c) * SLOTS: detik pada UTC+8 dikurangi base, digeser ke rentang short
+    private final short[] data;
+    // day * SLOTS + k: waktu terkecil di seluruh node untuk hari dan waktu itu
+    private final int[] base;
+    // Sel (r, c) dengan galat di atas anggaran -> dihitung eksak
+    private final boolean[] exactCell;
+    private int measuredMaxErrorSeconds;
+
+    public PrayerTimeGrid(CalculationMethod method, LocalDate startDate, int days) {
+        this(method, startDate, days, DEFAULT_RESOLUTION, DEFAULT_MAX_ERROR_SECONDS);
+    }
+
+    public PrayerTimeGrid(CalculationMethod method, LocalDate startDate, int days,
+                          double resolution, int maxErrorSeconds) {
+        this.exact = new PrayerTimeCalculator(method);
+        this.firstEpochDay = startDate.toEpochDay();
+        this.days = days;
+        this.resolution = resolution;
+        this.rows = (int) Math.ceil((MAX_LAT - MIN_LAT) / resolution) + 1;
+        this.cols = (int) Math.ceil((MAX_LNG - MIN_LNG) / resolution) + 1;
+        this.maxErrorSeconds = maxErrorSeconds;
+        this.data = new short[days * rows * cols * SLOTS];
+        this.base = new int[days * SLOTS];
+        this.exactCell = new boolean[(rows - 1) * (cols - 1)];
+        build(method);
+    }
+
+    private void build(CalculationMethod method) {
+        SolarEphemerisCache ephemeris = SolarEphemerisCache.forRange(firstEpochDay, days);
+        int firstIndex = ephemeris.indexOf(firstEpochDay);
+
+        // Node, tengah sel, titik tengah sisi horizontal (r, c + 0.5) dan vertikal (r + 0.5, c)
+        BatchPrayerCalculator nodeBatch = batch(method, rows, cols, 0, 0);
+        BatchPrayerCalculator centerBatch = batch(method, rows - 1, cols - 1, 0.5, 0.5);
+        BatchPrayerCalculator hEdgeBatch = batch(method, rows, cols - 1, 0, 0.5);
+        BatchPrayerCalculator vEdgeBatch = batch(method, rows - 1, cols, 0.5, 0);
+
+        int nodes = rows * cols;
+        int[] nodeTimes = new int[nodes * SLOTS];
+        int[] centerTimes = new int[centerBatch.size() * SLOTS];
+        int[] hEdgeTimes = new int[hEdgeBatch.size() * SLOTS];
+        int[] vEdgeTimes = new int[vEdgeBatch.size() * SLOTS];
+        int maxError = 0;
+
+        for (int d = 0; d < days; d++) {
+            int e = firstIndex + d;
+            nodeBatch.computeDay(ephemeris, e, 0, nodes, nodeTimes, 0, SLOTS);
+            centerBatch.computeDay(ephemeris, e, 0, centerBatch.size(), centerTimes, 0, SLOTS);
+            hEdgeBatch.computeDay(ephemeris, e, 0, hEdgeBatch.size(), hEdgeTimes, 0, SLOTS);
+            vEdgeBatch.computeDay(ephemeris, e, 0, vEdgeBatch.size(), vEdgeTimes, 0, SLOTS);
+            store(d, nodeTimes);
+
+            for (int r = 0; r < rows - 1; r++) {
+                for (int c = 0; c < cols - 1; c++) {
+                    int cell = r * (cols - 1) + c;
+                    int err = cellError(nodeTimes, r, c, centerTimes, hEdgeTimes, vEdgeTimes);
+                    if (err > maxErrorSeconds) exactCell[cell] = true;
+                    if (err > maxError) maxError = err;
+                }
+            }
+        }
+        this.measuredMaxErrorSeconds = maxError;
+    }
+
+    private BatchPrayerCalculator batch(CalculationMethod method, int nRows, int nCols, double dr, double dc) {
+        int n = nRows * nCols;
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        int[] tz = new int[n];
+        for (int r = 0; r < nRows; r++) {
+            for (int c = 0; c < nCols; c++) {
+                lat[r * nCols + c] = MIN_LAT + (r + dr) * resolution;
+                lng[r * nCols + c] = MIN_LNG + (c + dc) * resolution;
+                tz[r * nCols + c] = REFERENCE_TZ;
+            }
+        }
+        return new BatchPrayerCalculator(method, lat, lng, tz);
+    }
+
+    /**
+     * Simpan waktu node satu hari sebagai selisih dari waktu terkecil per slot
+     */
+    private void store(int day, int[] nodeTimes) {
+        int nodes = rows * cols;
+        for (int k = 0; k < SLOTS; k++) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < nodes; i++) {
+                int v = nodeTimes[i * SLOTS + k];
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            if (max - min > Short.MAX_VALUE - Short.MIN_VALUE) {
+                throw new IllegalStateException("Rentang waktu grid terlalu lebar: " + (max - min) + " detik");
+            }
+            base[day * SLOTS + k] = min;
+            int first = day * nodes * SLOTS;
+            for (int i = 0; i < nodes; i++) {
+                data[first + i * SLOTS + k] = (short) (nodeTimes[i * SLOTS + k] - min + Short.MIN_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Galat interpolasi terbesar sel (r, c) di tengah sel dan di titik tengah keempat sisinya
+     */
+    private int cellError(int[] nodeTimes, int r, int c, int[] centerTimes, int[] hEdgeTimes, int[] vEdgeTimes) {
+        int n00 = (r * cols + c) * SLOTS;
+        int n01 = n00 + SLOTS;
+        int n10 = n00 + cols * SLOTS;
+        int n11 = n10 + SLOTS;
+        int center = (r * (cols - 1) + c) * SLOTS;
+        int bottom = (r * (cols - 1) + c) * SLOTS;
+        int top = ((r + 1) * (cols - 1) + c) * SLOTS;
+        int left = (r * cols + c) * SLOTS;
+        int right = left + SLOTS;
+        int max = 0;
+        for (int k = 0; k < SLOTS; k++) {
+            int a = nodeTimes[n00 + k];
+            int b = nodeTimes[n01 + k];
+            int u = nodeTimes[n10 + k];
+            int w = nodeTimes[n11 + k];
+            max = Math.max(max, error((a + b + u + w) / 4.0, centerTimes[center + k]));
+            max = Math.max(max, error((a + b) / 2.0, hEdgeTimes[bottom + k]));
+            max = Math.max(max, error((u + w) / 2.0, hEdgeTimes[top + k]));
+            max = Math.max(max, error((a + u) / 2.0, vEdgeTimes[left + k]));
+            max = Math.max(max, error((b + w) / 2.0, vEdgeTimes[right + k]));
+        }
+        return max;
+    }
+
+    private static int error(double interpolated, int exactSeconds) {
+        return (int) Math.ceil(Math.abs(interpolated - exactSeconds));
+    }
+
+    private int nodeOffset(int day, int r, int c) {
+        return ((day * rows + r) * cols + c) * SLOTS;
+    }
+
+    /**
+     * Isi 8 waktu (detik-dalam-hari waktu lokal) untuk koordinat dan tanggal tertentu.
+     * @return true jika dilayani dari grid, false jika memakai perhitungan eksak
+     */
+    public boolean lookup(double lat, double lng, LocalDate date, int tzOffset, int[] out, int offset) {
+        long epochDay = date.toEpochDay();
+        int day = (int) (epochDay - firstEpochDay);
+        double y = (lat - MIN_LAT) / resolution;
+        double x = (lng - MIN_LNG) / resolution;
+
+        // Ditulis positif agar NaN ikut gagal (setiap perbandingan dengan NaN bernilai false)
+        boolean inside = day >= 0 && day < days && y >= 0 && y <= rows - 1 && x >= 0 && x <= cols - 1;
+        if (!inside) {
+            exact.compute(SolarEphemerisCache.getShared(), epochDay, lat, lng, tzOffset, out, offset);
+            return false;
+        }
+
+        int r = Math.min((int) y, rows - 2);
+        int c = Math.min((int) x, cols - 2);
+        if (exactCell[r * (cols - 1) + c]) {
+            exact.compute(SolarEphemerisCache.getShared(), epochDay, lat, lng, tzOffset, out, offset);
+            return false;
+        }
+
+        double fy = y - r;
+        double fx = x - c;
+        int n00 = nodeOffset(day, r, c);
+        int n01 = n00 + SLOTS;
+        int n10 = n00 + cols * SLOTS;
+        int n11 = n10 + SLOTS;
+        int shift = (tzOffset - REFERENCE_TZ) * 3600;
+        for (int k = 0; k < SLOTS; k++) {
+            double v = (1 - fy) * ((1 - fx) * data[n00 + k] + fx * data[n01 + k])
+                     + fy * ((1 - fx) * data[n10 + k] + fx * data[n11 + k]);
+            int seconds = (int) Math.round(v) - Short.MIN_VALUE + base[day * SLOTS + k];
+            out[offset + k] = Math.floorMod(seconds + shift, SECONDS_PER_DAY);
+        }
+        return true;
+    }
+
+    /**
+     * Galat terbesar (detik) di titik uji sel (tengah dan titik tengah sisi) saat grid dibangun
+     */
+    public int getMeasuredMaxErrorSeconds() {
+        return measuredMaxErrorSeconds;
+    }
+
+    public int getMaxErrorSeconds() {
+        return maxErrorSeconds;
+    }
+
+    public int getExactCellCount() {
+        int n = 0;
+        for (boolean b : exactCell) {
+            if (b) n++;
+        }
+        return n;
+    }
+
+    public double getResolution() {
+        return resolution;
+    }
+
+    public LocalDate getStartDate() {
+        return LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    public int getDays() {
+        return days;
+    }
+}
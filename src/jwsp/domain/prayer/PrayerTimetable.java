@@ -0,0 +1,69 @@
+package jwsp.domain.prayer;
+
+import jwsp.data.wilayah.Wilayah;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Tabel jadwal sholat primitif (kota × hari × {@link PrayerTimeCalculator#TIMES_PER_DAY}).
+ * Nilai berupa detik-dalam-hari waktu lokal masing-masing kota.
+ */
+public class PrayerTimetable {
+
+    private final List<Wilayah> cities;
+    private final LocalDate startDate;
+    private final int days;
+    private final int[] data;
+
+    PrayerTimetable(List<Wilayah> cities, LocalDate startDate, int days) {
+        this.cities = cities;
+        this.startDate = startDate;
+        this.days = days;
+        this.data = new int[cities.size() * days * PrayerTimeCalculator.TIMES_PER_DAY];
+    }
+
+    /**
+     * Offset awal blok 8 waktu untuk kota dan hari tertentu di {@link #getData()}
+     */
+    public int offsetOf(int cityIndex, int dayIndex) {
+        return (cityIndex * days + dayIndex) * PrayerTimeCalculator.TIMES_PER_DAY;
+    }
+
+    public int getSeconds(int cityIndex, int dayIndex, int slot) {
+        return data[offsetOf(cityIndex, dayIndex) + slot];
+    }
+
+    public LocalTime getTime(int cityIndex, int dayIndex, int slot) {
+        int s = getSeconds(cityIndex, dayIndex, slot);
+        return LocalTime.of(s / 3600, (s / 60) % 60);
+    }
+
+    public int indexOf(Wilayah wilayah) {
+        return cities.indexOf(wilayah);
+    }
+
+    public List<Wilayah> getCities() {
+        return cities;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getDate(int dayIndex) {
+        return startDate.plusDays(dayIndex);
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * Array mentah (tanpa salinan) untuk ekspor massal
+     */
+    public int[] getData() {
+        return data;
+    }
+}
@@ -0,0 +1,43 @@
+package jwsp.domain.prayer;
+
+/**
+ * Kernel sudut jam skalar (fallback bila Vector API tidak tersedia)
+ */
+public class ScalarHourAngleKernel implements HourAngleKernel {
+
+    private final boolean fastTrig;
+
+    public ScalarHourAngleKernel() {
+        this(false);
+    }
+
+    /**
+     * @param fastTrig pakai arccos cepat (lihat {@link SolarMath#FAST_MAX_ERROR_SECONDS})
+     */
+    public ScalarHourAngleKernel(boolean fastTrig) {
+        this.fastTrig = fastTrig;
+    }
+
+    @Override
+    public void hourAngles(double[] sinLat, double[] cosLat, int from, int to,
+                           double sinDecl, double cosDecl, double sinAltitude, double[] out) {
+        for (int i = from; i < to; i++) {
+            out[i] = hourAngle(sinAltitude, sinLat[i] * sinDecl, cosLat[i] * cosDecl);
+        }
+    }
+
+    @Override
+    public void asrHourAngles(double[] latRad, double[] sinLat, double[] cosLat, int from, int to,
+                              double declRad, double sinDecl, double cosDecl, double shadowFactor, double[] out) {
+        for (int i = from; i < to; i++) {
+            double sinAlt = SolarMath.asrSinAltitude(latRad[i], declRad, shadowFactor);
+            out[i] = hourAngle(sinAlt, sinLat[i] * sinDecl, cosLat[i] * cosDecl);
+        }
+    }
+
+    private double hourAngle(double sinAltitude, double sinLatSinDecl, double cosLatCosDecl) {
+        return fastTrig
+            ? SolarMath.fastHourAngleHours(sinAltitude, sinLatSinDecl, cosLatCosDecl)
+            : SolarMath.hourAngleHours(sinAltitude, sinLatSinDecl, cosLatCosDecl);
+    }
+}
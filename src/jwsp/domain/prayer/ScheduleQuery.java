@@ -0,0 +1,190 @@
+package jwsp.domain.prayer;
+
+import jwsp.data.wilayah.Wilayah;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Query jadwal untuk rentang tanggal, dihitung lokal (tanpa jaringan) dan secara lazy.
+ *
+ * <pre>
+ * ScheduleQuery.forCity(wilayah).from(start).to(end).method(CalculationMethod.KEMENAG)
+ *     .stream().parallel().forEach(...);
+ * </pre>
+ *
+ * Rentang tidak pernah dimaterialisasi: spliterator memecah rentang hari menjadi dua bagian,
+ * dan tiap bagian mengambil suku matahari per blok {@link #CHUNK_DAYS} hari (cache bersama
+ * jika sudah mencakup). Tanggal {@code to} ikut dihitung (inklusif).
+ *
+ * {@code from} dan {@code to} wajib diisi: "hari ini" bergantung pada zona waktu kota, sedangkan
+ * query koordinat tidak punya zona, jadi tidak ada default yang aman.
+ */
+public class ScheduleQuery {
+
+    // Ukuran blok suku matahari per spliterator
+    static final int CHUNK_DAYS = 366;
+    // Rentang terkecil yang masih dipecah untuk paralel
+    private static final int MIN_SPLIT_DAYS = 32;
+
+    private final String cityId;
+    private final ObserverLocation location;
+    private LocalDate from;
+    private LocalDate to;
+    private CalculationMethod method = JadwalSholat.METODE_MANUAL;
+    private EphemerisModel model = EphemerisModel.LOW_PRECISION;
+    private boolean calibrated;
+
+    private ScheduleQuery(String cityId, ObserverLocation location) {
+        this.cityId = cityId;
+        this.location = location;
+    }
+
+    public static ScheduleQuery forCity(Wilayah wilayah) {
+        return new ScheduleQuery(wilayah.getId(), new ObserverLocation(wilayah.getLatitude(),
+            wilayah.getLongitude(), PrayerTimeCalculator.utcOffsetHours(wilayah.getZonaWaktu())));
+    }
+
+    public static ScheduleQuery forCoordinates(double latitude, double longitude, int tzOffset) {
+        return new ScheduleQuery(null, new ObserverLocation(latitude, longitude, tzOffset));
+    }
+
+    public ScheduleQuery from(LocalDate from) {
+        this.from = Objects.requireNonNull(from, "from");
+        return this;
+    }
+
+    /**
+     * Tanggal terakhir (inklusif)
+     */
+    public ScheduleQuery to(LocalDate to) {
+        this.to = Objects.requireNonNull(to, "to");
+        return this;
+    }
+
+    public ScheduleQuery method(CalculationMethod method) {
+        this.method = method;
+        return this;
+    }
+
+    /**
+     * {@link EphemerisModel#MEEUS} memakai kalkulator akurasi tinggi
+     */
+    public ScheduleQuery model(EphemerisModel model) {
+        this.model = model;
+        return this;
+    }
+
+    /**
+     * Terapkan koreksi {@link CalibrationTable} kota (hanya untuk query kota)
+     */
+    public ScheduleQuery calibrated(boolean calibrated) {
+        this.calibrated = calibrated;
+        return this;
+    }
+
+    public long count() {
+        requireRange();
+        return Math.max(0, to.toEpochDay() - from.toEpochDay() + 1);
+    }
+
+    public Spliterator<DaySchedule> spliterator() {
+        requireRange();
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Tanggal akhir sebelum tanggal awal: " + from + " > " + to);
+        }
+        PrayerTimeCalculator calculator = model == EphemerisModel.MEEUS
+            ? PrayerTimeCalculator.highAccuracy(method)
+            : new PrayerTimeCalculator(method);
+        CalibrationTable calibration = (calibrated && cityId != null) ? CalibrationTable.getInstance() : null;
+        return new DaySpliterator(calculator, model, cityId, location, calibration,
+                                  from.toEpochDay(), to.toEpochDay() + 1);
+    }
+
+    private void requireRange() {
+        if (from == null || to == null) {
+            throw new IllegalStateException("Rentang tanggal belum diisi: panggil from(...) dan to(...)");
+        }
+    }
+
+    /**
+     * Stream berurutan; panggil {@code parallel()} untuk menghitung rentang panjang secara paralel
+     */
+    public Stream<DaySchedule> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    private static class DaySpliterator implements Spliterator<DaySchedule> {
+        private final PrayerTimeCalculator calculator;
+        private final EphemerisModel model;
+        private final String cityId;
+        private final ObserverLocation location;
+        private final CalibrationTable calibration;
+        private long next;
+        private final long end;
+        private SolarEphemerisCache chunk;
+
+        DaySpliterator(PrayerTimeCalculator calculator, EphemerisModel model, String cityId,
+                       ObserverLocation location, CalibrationTable calibration, long next, long end) {
+            this.calculator = calculator;
+            this.model = model;
+            this.cityId = cityId;
+            this.location = location;
+            this.calibration = calibration;
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super DaySchedule> action) {
+            if (next >= end) return false;
+            action.accept(computeDay(next++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super DaySchedule> action) {
+            while (next < end) {
+                action.accept(computeDay(next++));
+            }
+        }
+
+        private DaySchedule computeDay(long epochDay) {
+            if (chunk == null || !chunk.covers(epochDay)) {
+                int days = (int) Math.min(end - epochDay, CHUNK_DAYS);
+                chunk = SolarEphemerisCache.forRange(epochDay, days, model);
+            }
+            int[] times = new int[PrayerTimeCalculator.TIMES_PER_DAY];
+            calculator.compute(chunk, epochDay, location, times, 0);
+            if (calibration != null) {
+                calibration.apply(cityId, times, 0);
+            }
+            return new DaySchedule(cityId, epochDay, times);
+        }
+
+        @Override
+        public Spliterator<DaySchedule> trySplit() {
+            long remaining = end - next;
+            if (remaining < MIN_SPLIT_DAYS * 2) return null;
+            long mid = next + remaining / 2;
+            DaySpliterator prefix = new DaySpliterator(calculator, model, cityId, location, calibration, next, mid);
+            next = mid;
+            chunk = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+    }
+}
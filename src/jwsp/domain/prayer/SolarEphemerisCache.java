@@ -0,0 +1,214 @@
+package jwsp.domain.prayer;
+
+import java.time.LocalDate;
+
+/**
+ * Cache suku matahari harian (deklinasi beserta sin/cos-nya, right ascension, equation of time)
+ * dalam array primitif. Key berupa epoch day, yang setara satu-satu dengan Julian Day tengah
+ * malam UT (JD = epochDay + {@link #EPOCH_DAY_JD_OFFSET}).
+ *
+ * Array diisi sekali di konstruktor dan tidak pernah diubah, sehingga satu instance
+ * aman dibagi ke semua kalkulator dan thread. Hari di luar jendela dihitung langsung.
+ * Satu hari tambahan di kedua sisi jendela ikut disimpan untuk interpolasi dalam hari
+ * (lihat {@link #declinationRadAt(int, double)}).
+ */
+public final class SolarEphemerisCache {
+
+    public static final double EPOCH_DAY_JD_OFFSET = 2440587.5;
+    public static final int DEFAULT_WINDOW_DAYS = 400;
+
+    private static final SolarEphemerisCache[] shared = new SolarEphemerisCache[EphemerisModel.values().length];
+
+    private final EphemerisModel model;
+    private final long firstEpochDay;
+    private final int size;
+    // Indeks array = epochDay - firstEpochDay + 1 (slot 0 dan size + 1 adalah bantalan)
+    private final double[] declination;
+    private final double[] declinationRad;
+    private final double[] sinDeclination;
+    private final double[] cosDeclination;
+    private final double[] rightAscension;
+    private final double[] equationOfTime;
+
+    /**
+     * Cache presisi rendah untuk tanggal tengah ± windowDays hari
+     */
+    public SolarEphemerisCache(LocalDate center, int windowDays) {
+        this(center, windowDays, EphemerisModel.LOW_PRECISION);
+    }
+
+    public SolarEphemerisCache(LocalDate center, int windowDays, EphemerisModel model) {
+        this(center.toEpochDay() - windowDays, windowDays * 2 + 1, model);
+    }
+
+    /**
+     * Cache presisi rendah untuk rentang [firstEpochDay, firstEpochDay + days)
+     */
+    public SolarEphemerisCache(long firstEpochDay, int days) {
+        this(firstEpochDay, days, EphemerisModel.LOW_PRECISION);
+    }
+
+    public SolarEphemerisCache(long firstEpochDay, int days, EphemerisModel model) {
+        this.model = model;
+        this.firstEpochDay = firstEpochDay;
+        this.size = days;
+        int n = days + 2;
+        this.declination = new double[n];
+        this.declinationRad = new double[n];
+        this.sinDeclination = new double[n];
+        this.cosDeclination = new double[n];
+        this.rightAscension = new double[n];
+        this.equationOfTime = new double[n];
+        for (int i = 0; i < n; i++) {
+            double jd = firstEpochDay + i - 1 + EPOCH_DAY_JD_OFFSET;
+            declinationRad[i] = declinationRad(model, jd);
+            declination[i] = Math.toDegrees(declinationRad[i]);
+            sinDeclination[i] = Math.sin(declinationRad[i]);
+            cosDeclination[i] = Math.cos(declinationRad[i]);
+            rightAscension[i] = rightAscension(model, jd);
+            equationOfTime[i] = equationOfTime(model, jd);
+        }
+    }
+
+    /**
+     * Cache bersama presisi rendah (hari ini ± {@link #DEFAULT_WINDOW_DAYS}), dibuat saat pertama dipakai
+     */
+    public static SolarEphemerisCache getShared() {
+        return getShared(EphemerisModel.LOW_PRECISION);
+    }
+
+    public static SolarEphemerisCache getShared(EphemerisModel model) {
+        synchronized (shared) {
+            SolarEphemerisCache c = shared[model.ordinal()];
+            if (c == null) {
+                c = new SolarEphemerisCache(LocalDate.now(), DEFAULT_WINDOW_DAYS, model);
+                shared[model.ordinal()] = c;
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Ganti cache bersama dengan jendela lain (mis. saat batch tahunan)
+     */
+    public static SolarEphemerisCache configureShared(LocalDate center, int windowDays) {
+        return configureShared(center, windowDays, EphemerisModel.LOW_PRECISION);
+    }
+
+    public static SolarEphemerisCache configureShared(LocalDate center, int windowDays, EphemerisModel model) {
+        SolarEphemerisCache c = new SolarEphemerisCache(center, windowDays, model);
+        synchronized (shared) {
+            shared[model.ordinal()] = c;
+        }
+        return c;
+    }
+
+    /**
+     * Cache bersama jika mencakup seluruh rentang, atau cache baru khusus rentang tersebut
+     */
+    public static SolarEphemerisCache forRange(long firstEpochDay, int days) {
+        return forRange(firstEpochDay, days, EphemerisModel.LOW_PRECISION);
+    }
+
+    public static SolarEphemerisCache forRange(long firstEpochDay, int days, EphemerisModel model) {
+        SolarEphemerisCache c = getShared(model);
+        if (c.covers(firstEpochDay) && c.covers(firstEpochDay + days - 1)) {
+            return c;
+        }
+        return new SolarEphemerisCache(firstEpochDay, days, model);
+    }
+
+    public boolean covers(long epochDay) {
+        return indexOf(epochDay) >= 0;
+    }
+
+    /**
+     * Indeks array untuk epoch day, atau -1 jika di luar jendela
+     */
+    public int indexOf(long epochDay) {
+        long i = epochDay - firstEpochDay;
+        return (i >= 0 && i < size) ? (int) i + 1 : -1;
+    }
+
+    public double declination(long epochDay) {
+        int i = indexOf(epochDay);
+        return i >= 0 ? declination[i] : Math.toDegrees(declinationRad(model, epochDay + EPOCH_DAY_JD_OFFSET));
+    }
+
+    public double rightAscension(long epochDay) {
+        int i = indexOf(epochDay);
+        return i >= 0 ? rightAscension[i] : rightAscension(model, epochDay + EPOCH_DAY_JD_OFFSET);
+    }
+
+    public double equationOfTime(long epochDay) {
+        int i = indexOf(epochDay);
+        return i >= 0 ? equationOfTime[i] : equationOfTime(model, epochDay + EPOCH_DAY_JD_OFFSET);
+    }
+
+    // Akses langsung per indeks untuk loop massal (indeks harus valid)
+
+    public double declinationAt(int index) {
+        return declination[index];
+    }
+
+    public double declinationRadAt(int index) {
+        return declinationRad[index];
+    }
+
+    public double sinDeclinationAt(int index) {
+        return sinDeclination[index];
+    }
+
+    public double cosDeclinationAt(int index) {
+        return cosDeclination[index];
+    }
+
+    public double equationOfTimeAt(int index) {
+        return equationOfTime[index];
+    }
+
+    /**
+     * Deklinasi (radian) pada pecahan hari n sejak 0h UT (-1..1), interpolasi tiga titik
+     * hari sebelumnya/hari ini/hari berikutnya (Meeus rumus 3.3)
+     */
+    public double declinationRadAt(int index, double n) {
+        return interpolate(declinationRad, index, n);
+    }
+
+    /**
+     * Equation of time (jam) pada pecahan hari n sejak 0h UT (-1..1)
+     */
+    public double equationOfTimeAt(int index, double n) {
+        return interpolate(equationOfTime, index, n);
+    }
+
+    private static double interpolate(double[] y, int index, double n) {
+        double a = y[index] - y[index - 1];
+        double b = y[index + 1] - y[index];
+        return y[index] + n / 2.0 * (a + b + n * (b - a));
+    }
+
+    public EphemerisModel getModel() {
+        return model;
+    }
+
+    public long getFirstEpochDay() {
+        return firstEpochDay;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    static double declinationRad(EphemerisModel model, double jd) {
+        return model == EphemerisModel.MEEUS ? SolarMath.meeusDeclinationRad(jd) : SolarMath.declinationRad(jd);
+    }
+
+    private static double rightAscension(EphemerisModel model, double jd) {
+        return model == EphemerisModel.MEEUS ? SolarMath.meeusRightAscensionHours(jd) : SolarMath.rightAscensionHours(jd);
+    }
+
+    static double equationOfTime(EphemerisModel model, double jd) {
+        return model == EphemerisModel.MEEUS ? SolarMath.meeusEquationOfTimeHours(jd) : SolarMath.equationOfTimeHours(jd);
+    }
+}
@@ -0,0 +1,206 @@
+package jwsp.domain.prayer;
+
+/**
+ * Kernel matematika matahari berbasis radian (tanpa konversi derajat per panggilan).
+ * Semua konstanta sudut sudah dikonversi sekali ke radian.
+ *
+ * Mode cepat memakai aproksimasi arccos Abramowitz &amp; Stegun 4.4.45:
+ * |galat| ≤ 6.8e-5 rad pada [-1, 1] (terukur 6.753e-5 dengan koefisien 7 digit;
+ * sisi negatif lewat acos(x) = π - acos(-x)).
+ * Karena sudut jam diubah ke waktu dengan faktor 12/π jam per radian, galat waktu
+ * per event ≤ 6.8e-5 × 12/π × 3600 ≈ 0.94 detik ({@link #FAST_MAX_ERROR_SECONDS}).
+ * Sinus ketinggian Ashar dihitung lewat identitas aljabar sin(atan(1/k)) = 1/√(1+k²),
+ * sehingga tidak menambah galat.
+ */
+public final class SolarMath {
+
+    public static final double RAD_TO_HOURS = 12.0 / Math.PI;
+
+    public static final double FAST_ACOS_MAX_ERROR_RAD = 6.8e-5;
+    public static final double FAST_MAX_ERROR_SECONDS = FAST_ACOS_MAX_ERROR_RAD * RAD_TO_HOURS * 3600.0;
+
+    private static final double J2000 = 2451545.0;
+    private static final double DEG = Math.PI / 180.0;
+
+    // Suku matahari presisi rendah (semua dalam radian)
+    private static final double G0 = 357.529 * DEG;
+    private static final double G1 = 0.98560028 * DEG;
+    private static final double Q0 = 280.459 * DEG;
+    private static final double Q1 = 0.98564736 * DEG;
+    private static final double C1 = 1.915 * DEG;
+    private static final double C2 = 0.020 * DEG;
+    private static final double E0 = 23.439 * DEG;
+    private static final double E1 = 0.00000036 * DEG;
+    private static final double TWO_PI = 2 * Math.PI;
+
+    private SolarMath() {}
+
+    /**
+     * Bujur rata-rata matahari (radian, 0..2π)
+     */
+    static double meanLongitude(double d) {
+        return fixRadians(Q0 + Q1 * d);
+    }
+
+    /**
+     * Bujur ekliptika semu matahari (radian)
+     */
+    static double eclipticLongitude(double d) {
+        double g = G0 + G1 * d;
+        return meanLongitude(d) + C1 * Math.sin(g) + C2 * Math.sin(2 * g);
+    }
+
+    static double obliquity(double d) {
+        return E0 - E1 * d;
+    }
+
+    /**
+     * Deklinasi matahari (radian) untuk Julian Day tertentu
+     */
+    public static double declinationRad(double jd) {
+        double d = jd - J2000;
+        return Math.asin(Math.sin(obliquity(d)) * Math.sin(eclipticLongitude(d)));
+    }
+
+    /**
+     * Right ascension matahari (jam, 0..24) untuk Julian Day tertentu
+     */
+    public static double rightAscensionHours(double jd) {
+        double d = jd - J2000;
+        double l = eclipticLongitude(d);
+        return fixRadians(Math.atan2(Math.cos(obliquity(d)) * Math.sin(l), Math.cos(l))) * RAD_TO_HOURS;
+    }
+
+    /**
+     * Equation of time (jam, -12..12) untuk Julian Day tertentu
+     */
+    public static double equationOfTimeHours(double jd) {
+        return wrapHours(meanLongitude(jd - J2000) * RAD_TO_HOURS - rightAscensionHours(jd));
+    }
+
+    // --- Model akurasi tinggi (Meeus, Astronomical Algorithms bab 22, 25, 28) ---
+
+    /**
+     * Abad Julian sejak J2000
+     */
+    private static double centuries(double jd) {
+        return (jd - J2000) / 36525.0;
+    }
+
+    private static double meeusMeanLongitude(double t) {
+        return fixRadians((280.46646 + t * (36000.76983 + t * 0.0003032)) * DEG);
+    }
+
+    private static double meeusMeanAnomaly(double t) {
+        return (357.52911 + t * (35999.05029 - t * 0.0001537)) * DEG;
+    }
+
+    private static double meeusEccentricity(double t) {
+        return 0.016708634 - t * (0.000042037 + t * 0.0000001267);
+    }
+
+    private static double meeusOmega(double t) {
+        return (125.04 - 1934.136 * t) * DEG;
+    }
+
+    /**
+     * Bujur semu matahari (radian): bujur sejati + koreksi nutasi dan aberasi
+     */
+    private static double meeusApparentLongitude(double t) {
+        double m = meeusMeanAnomaly(t);
+        double c = ((1.914602 - t * (0.004817 + t * 0.000014)) * Math.sin(m)
+                  + (0.019993 - t * 0.000101) * Math.sin(2 * m)
+                  + 0.000289 * Math.sin(3 * m)) * DEG;
+        return meeusMeanLongitude(t) + c - (0.00569 + 0.00478 * Math.sin(meeusOmega(t))) * DEG;
+    }
+
+    /**
+     * Kemiringan ekliptika rata-rata (radian)
+     */
+    private static double meeusMeanObliquity(double t) {
+        double seconds = 21.448 - t * (46.8150 + t * (0.00059 - t * 0.001813));
+        return (23.0 + (26.0 + seconds / 60.0) / 60.0) * DEG;
+    }
+
+    /**
+     * Deklinasi semu matahari (radian), model Meeus
+     */
+    public static double meeusDeclinationRad(double jd) {
+        double t = centuries(jd);
+        double eps = meeusMeanObliquity(t) + 0.00256 * DEG * Math.cos(meeusOmega(t));
+        return Math.asin(Math.sin(eps) * Math.sin(meeusApparentLongitude(t)));
+    }
+
+    /**
+     * Right ascension semu matahari (jam, 0..24), model Meeus
+     */
+    public static double meeusRightAscensionHours(double jd) {
+        double t = centuries(jd);
+        double eps = meeusMeanObliquity(t) + 0.00256 * DEG * Math.cos(meeusOmega(t));
+        double l = meeusApparentLongitude(t);
+        return fixRadians(Math.atan2(Math.cos(eps) * Math.sin(l), Math.cos(l))) * RAD_TO_HOURS;
+    }
+
+    /**
+     * Equation of time (jam, -12..12), Meeus rumus 28.3
+     */
+    public static double meeusEquationOfTimeHours(double jd) {
+        double t = centuries(jd);
+        double l0 = meeusMeanLongitude(t);
+        double m = meeusMeanAnomaly(t);
+        double e = meeusEccentricity(t);
+        double y = Math.tan(meeusMeanObliquity(t) / 2);
+        y *= y;
+        double eqt = y * Math.sin(2 * l0)
+                   - 2 * e * Math.sin(m)
+                   + 4 * e * y * Math.sin(m) * Math.cos(2 * l0)
+                   - 0.5 * y * y * Math.sin(4 * l0)
+                   - 1.25 * e * e * Math.sin(2 * m);
+        return wrapHours(eqt * RAD_TO_HOURS);
+    }
+
+    /**
+     * Sudut jam (jam) saat matahari mencapai ketinggian dengan sinus sinAltitude
+     */
+    public static double hourAngleHours(double sinAltitude, double sinLatSinDecl, double cosLatCosDecl) {
+        return Math.acos(clampCos((sinAltitude - sinLatSinDecl) / cosLatCosDecl)) * RAD_TO_HOURS;
+    }
+
+    /**
+     * Seperti {@link #hourAngleHours} dengan arccos cepat (galat ≤ {@link #FAST_MAX_ERROR_SECONDS} detik)
+     */
+    public static double fastHourAngleHours(double sinAltitude, double sinLatSinDecl, double cosLatCosDecl) {
+        return fastAcos(clampCos((sinAltitude - sinLatSinDecl) / cosLatCosDecl)) * RAD_TO_HOURS;
+    }
+
+    /**
+     * Aproksimasi arccos A&amp;S 4.4.45, |galat| ≤ {@link #FAST_ACOS_MAX_ERROR_RAD}
+     */
+    public static double fastAcos(double x) {
+        double a = Math.abs(x);
+        double r = Math.sqrt(1.0 - a) * (1.5707288 + a * (-0.2121144 + a * (0.0742610 + a * -0.0187293)));
+        return x < 0 ? Math.PI - r : r;
+    }
+
+    /**
+     * Sinus ketinggian matahari saat Ashar: bayangan = faktor + panjang bayangan tengah hari
+     */
+    public static double asrSinAltitude(double latRad, double declRad, double shadowFactor) {
+        double k = shadowFactor + Math.tan(Math.abs(latRad - declRad));
+        return 1.0 / Math.sqrt(1.0 + k * k);
+    }
+
+    private static double clampCos(double c) {
+        if (c < -1) return -1;
+        if (c > 1) return 1;
+        return c;
+    }
+
+    private static double wrapHours(double h) {
+        return h - 24.0 * Math.floor((h + 12.0) / 24.0);
+    }
+
+    private static double fixRadians(double a) {
+        return a - TWO_PI * Math.floor(a / TWO_PI);
+    }
+}
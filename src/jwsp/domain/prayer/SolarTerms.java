@@ -0,0 +1,34 @@
+package jwsp.domain.prayer;
+
+/**
+ * Suku matahari satu hari (deklinasi radian beserta sin/cos-nya, equation of time dalam jam).
+ * Diambil dari cache bila hari tercakup, selain itu dihitung langsung dengan model cache
+ * tersebut sehingga hari di luar jendela tetap memakai presisi yang sama.
+ */
+final class SolarTerms {
+
+    final double declRad;
+    final double sinDecl;
+    final double cosDecl;
+    final double eqt;
+
+    private SolarTerms(double declRad, double sinDecl, double cosDecl, double eqt) {
+        this.declRad = declRad;
+        this.sinDecl = sinDecl;
+        this.cosDecl = cosDecl;
+        this.eqt = eqt;
+    }
+
+    static SolarTerms of(SolarEphemerisCache ephemeris, long epochDay) {
+        int i = ephemeris.indexOf(epochDay);
+        if (i >= 0) {
+            return new SolarTerms(ephemeris.declinationRadAt(i), ephemeris.sinDeclinationAt(i),
+                                  ephemeris.cosDeclinationAt(i), ephemeris.equationOfTimeAt(i));
+        }
+        EphemerisModel model = ephemeris.getModel();
+        double jd = epochDay + SolarEphemerisCache.EPOCH_DAY_JD_OFFSET;
+        double declRad = SolarEphemerisCache.declinationRad(model, jd);
+        return new SolarTerms(declRad, Math.sin(declRad), Math.cos(declRad),
+                              SolarEphemerisCache.equationOfTime(model, jd));
+    }
+}
@@ -0,0 +1,173 @@
+package jwsp.domain.prayer;
+
+import jwsp.data.wilayah.Wilayah;
+import jwsp.data.wilayah.WilayahData;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generator jadwal sholat massal (seluruh wilayah × rentang hari) secara paralel dengan fork-join.
+ * Suku matahari harian diambil dari {@link SolarEphemerisCache} dan dibagi ke semua kota.
+ * Dengan {@link EphemerisModel#MEEUS} setiap kota dihitung dengan penyempurnaan saat kejadian
+ * ({@link PrayerTimeCalculator#highAccuracy}); suku hariannya tetap dihitung sekali per hari.
+ */
+public class TimetableGenerator {
+
+    // Jumlah kota per tugas daun fork-join (cukup lebar untuk kernel vektor)
+    private static final int CITY_THRESHOLD = 64;
+
+    private final CalculationMethod method;
+    private final ForkJoinPool pool;
+    private final EphemerisModel model;
+
+    public TimetableGenerator(CalculationMethod method) {
+        this(method, ForkJoinPool.commonPool());
+    }
+
+    public TimetableGenerator(CalculationMethod method, ForkJoinPool pool) {
+        this(method, pool, EphemerisModel.LOW_PRECISION);
+    }
+
+    public TimetableGenerator(CalculationMethod method, ForkJoinPool pool, EphemerisModel model) {
+        this.method = method;
+        this.pool = pool;
+        this.model = model;
+    }
+
+    /**
+     * Jadwal satu tahun penuh untuk seluruh wilayah di WilayahData
+     */
+    public PrayerTimetable generateNational(int year) {
+        WilayahData data = WilayahData.getInstance();
+        LocalDate start = LocalDate.of(year, 1, 1);
+        return generate(new ArrayList<>(data.getAllWilayah()), data.getLatitudeColumn(),
+                        data.getLongitudeColumn(), start, start.lengthOfYear());
+    }
+
+    public PrayerTimetable generateYear(List<Wilayah> cities, int year) {
+        LocalDate start = LocalDate.of(year, 1, 1);
+        return generate(cities, start, start.lengthOfYear());
+    }
+
+    public PrayerTimetable generate(List<Wilayah> cities, LocalDate startDate, int days) {
+        List<Wilayah> snapshot = new ArrayList<>(cities);
+        int n = snapshot.size();
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        for (int c = 0; c < n; c++) {
+            lat[c] = snapshot.get(c).getLatitude();
+            lng[c] = snapshot.get(c).getLongitude();
+        }
+        return generate(snapshot, lat, lng, startDate, days);
+    }
+
+    private PrayerTimetable generate(List<Wilayah> cities, double[] lat, double[] lng,
+                                     LocalDate startDate, int days) {
+        PrayerTimetable table = new PrayerTimetable(cities, startDate, days);
+
+        // Suku matahari per hari, dipakai bersama oleh semua kota
+        long firstDay = startDate.toEpochDay();
+        SolarEphemerisCache ephemeris = SolarEphemerisCache.forRange(firstDay, days, model);
+        int firstIndex = ephemeris.indexOf(firstDay);
+
+        int n = cities.size();
+        int[] tz = new int[n];
+        for (int c = 0; c < n; c++) {
+            tz[c] = PrayerTimeCalculator.utcOffsetHours(cities.get(c).getZonaWaktu());
+        }
+
+        if (model == EphemerisModel.MEEUS) {
+            ObserverLocation[] locations = new ObserverLocation[n];
+            for (int c = 0; c < n; c++) {
+                locations[c] = new ObserverLocation(lat[c], lng[c], tz[c]);
+            }
+            pool.invoke(new RefinedCityRangeTask(table, PrayerTimeCalculator.highAccuracy(method),
+                                                 locations, ephemeris, 0, n));
+            return table;
+        }
+
+        BatchPrayerCalculator batch = new BatchPrayerCalculator(method, lat, lng, tz);
+        pool.invoke(new CityRangeTask(table, batch, ephemeris, firstIndex, 0, n));
+        return table;
+    }
+
+    private static class CityRangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PrayerTimetable table;
+        private final BatchPrayerCalculator batch;
+        private final SolarEphemerisCache ephemeris;
+        private final int firstIndex;
+        private final int from;
+        private final int to;
+
+        CityRangeTask(PrayerTimetable table, BatchPrayerCalculator batch, SolarEphemerisCache ephemeris,
+                      int firstIndex, int from, int to) {
+            this.table = table;
+            this.batch = batch;
+            this.ephemeris = ephemeris;
+            this.firstIndex = firstIndex;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CITY_THRESHOLD) {
+                int[] data = table.getData();
+                int days = table.getDays();
+                int stride = days * PrayerTimeCalculator.TIMES_PER_DAY;
+                for (int d = 0; d < days; d++) {
+                    batch.computeDay(ephemeris, firstIndex + d, from, to, data, table.offsetOf(from, d), stride);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CityRangeTask(table, batch, ephemeris, firstIndex, from, mid),
+                      new CityRangeTask(table, batch, ephemeris, firstIndex, mid, to));
+        }
+    }
+
+    private static class RefinedCityRangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PrayerTimetable table;
+        private final PrayerTimeCalculator calculator;
+        private final ObserverLocation[] locations;
+        private final SolarEphemerisCache ephemeris;
+        private final int from;
+        private final int to;
+
+        RefinedCityRangeTask(PrayerTimetable table, PrayerTimeCalculator calculator, ObserverLocation[] locations,
+                             SolarEphemerisCache ephemeris, int from, int to) {
+            this.table = table;
+            this.calculator = calculator;
+            this.locations = locations;
+            this.ephemeris = ephemeris;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CITY_THRESHOLD) {
+                int[] data = table.getData();
+                int days = table.getDays();
+                long firstDay = table.getStartDate().toEpochDay();
+                for (int c = from; c < to; c++) {
+                    for (int d = 0; d < days; d++) {
+                        calculator.compute(ephemeris, firstDay + d, locations[c], data, table.offsetOf(c, d));
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RefinedCityRangeTask(table, calculator, locations, ephemeris, from, mid),
+                      new RefinedCityRangeTask(table, calculator, locations, ephemeris, mid, to));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package jwsp.domain.prayer;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel sudut jam berbasis jdk.incubator.vector. Hanya dimuat lewat {@link HourAngleKernel#create()}
+ * bila modul tersedia (jalankan dengan --add-modules jdk.incubator.vector).
+ */
+class VectorHourAngleKernel implements HourAngleKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double RAD_TO_HOURS = 12.0 / Math.PI;
+
+    @Override
+    public void hourAngles(double[] sinLat, double[] cosLat, int from, int to,
+                           double sinDecl, double cosDecl, double sinAltitude, double[] out) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector sl = DoubleVector.fromArray(SPECIES, sinLat, i);
+            DoubleVector cl = DoubleVector.fromArray(SPECIES, cosLat, i);
+            DoubleVector cosHa = sl.mul(-sinDecl).add(sinAltitude).div(cl.mul(cosDecl));
+            cosHa.max(-1.0).min(1.0)
+                 .lanewise(VectorOperators.ACOS)
+                 .mul(RAD_TO_HOURS)
+                 .intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = SolarMath.hourAngleHours(sinAltitude, sinLat[i] * sinDecl, cosLat[i] * cosDecl);
+        }
+    }
+
+    @Override
+    public void asrHourAngles(double[] latRad, double[] sinLat, double[] cosLat, int from, int to,
+                              double declRad, double sinDecl, double cosDecl, double shadowFactor, double[] out) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector lr = DoubleVector.fromArray(SPECIES, latRad, i);
+            DoubleVector sl = DoubleVector.fromArray(SPECIES, sinLat, i);
+            DoubleVector cl = DoubleVector.fromArray(SPECIES, cosLat, i);
+            // sin(atan(1 / (f + tan|lat - decl|))) = 1 / sqrt(1 + (f + tan|lat - decl|)^2)
+            DoubleVector k = lr.sub(declRad).abs().lanewise(VectorOperators.TAN).add(shadowFactor);
+            DoubleVector sinAlt = DoubleVector.broadcast(SPECIES, 1.0).div(k.mul(k).add(1.0).sqrt());
+            DoubleVector cosHa = sl.mul(-sinDecl).add(sinAlt).div(cl.mul(cosDecl));
+            cosHa.max(-1.0).min(1.0)
+                 .lanewise(VectorOperators.ACOS)
+                 .mul(RAD_TO_HOURS)
+                 .intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            double sinAlt = SolarMath.asrSinAltitude(latRad[i], declRad, shadowFactor);
+            out[i] = SolarMath.hourAngleHours(sinAlt, sinLat[i] * sinDecl, cosLat[i] * cosDecl);
+        }
+    }
+}
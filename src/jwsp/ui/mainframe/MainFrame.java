@@ -1,5 +1,7 @@
 package jwsp.ui.mainframe;
 
+import jwsp.api.ApiService;
+import jwsp.api.CircuitBreaker;
 import jwsp.app.ApplicationLifecycleManager;
 import jwsp.config.UserPreferences;
 import jwsp.data.wilayah.WilayahData;
@@ -24,7 +26,8 @@ import javax.swing.Timer;
 
 public class MainFrame extends JFrame implements 
     PrayerTimeController.PrayerTimeListener,
-    ThemeManager.ThemeChangeListener {
+    ThemeManager.ThemeChangeListener,
+    CircuitBreaker.StateListener {
     
     // === DARK THEME COLORS ===
     private static final Color BG_DARK = new Color(30, 32, 40);
@@ -65,6 +68,7 @@ public class MainFrame extends JFrame implements
     private JLabel lblSunrise, lblDhuha;
     private JLabel lblStatusPuasa, lblImsak, lblBukaPuasa, lblInfoPuasa;
     private JLabel lblHijri, lblCountdown;
+    private JLabel lblApiStatus;
     
     // References
     private ApplicationLifecycleManager lifecycle;
@@ -90,6 +94,7 @@ public class MainFrame extends JFrame implements
         
         lifecycle.getController().addListener(this);
         ThemeManager.getInstance().addListener(this);
+        ApiService.getScheduleBreaker().addListener(this);
         lifecycle.setMainFrame(this);
         
         // Print stats
@@ -188,6 +193,12 @@ public class MainFrame extends JFrame implements
         lblCountdown.setForeground(TEXT_SECONDARY);
         lblCountdown.setHorizontalAlignment(SwingConstants.CENTER);
         rowCountdown.add(lblCountdown, BorderLayout.CENTER);
+
+        lblApiStatus = new JLabel();
+        lblApiStatus.setFont(new Font("SansSerif", Font.PLAIN, 10));
+        lblApiStatus.setHorizontalAlignment(SwingConstants.RIGHT);
+        rowCountdown.add(lblApiStatus, BorderLayout.EAST);
+        updateApiStatus();
         panel.add(rowCountdown);
         
         panel.add(Box.createVerticalStrut(8));
@@ -699,12 +710,34 @@ public class MainFrame extends JFrame implements
         SwingUtilities.invokeLater(this::updateDisplay);
     }
 
+    @Override
+    public void onStateChanged(CircuitBreaker breaker, CircuitBreaker.State state) {
+        SwingUtilities.invokeLater(this::updateApiStatus);
+    }
+
+    private void updateApiStatus() {
+        switch (ApiService.getScheduleBreaker().getState()) {
+            case OPEN:
+                lblApiStatus.setText("📴 API Offline (cache)");
+                lblApiStatus.setForeground(ACCENT_ORANGE);
+                break;
+            case HALF_OPEN:
+                lblApiStatus.setText("🔄 Menguji API");
+                lblApiStatus.setForeground(TEXT_MUTED);
+                break;
+            default:
+                lblApiStatus.setText("🌐 API Online");
+                lblApiStatus.setForeground(ACCENT_GREEN);
+        }
+    }
+
     @Override
     public void dispose() {
         if (lifecycle.getController() != null) {
             lifecycle.getController().removeListener(this);
         }
         ThemeManager.getInstance().removeListener(this);
+        ApiService.getScheduleBreaker().removeListener(this);
         cleanup();
         super.dispose();
     }